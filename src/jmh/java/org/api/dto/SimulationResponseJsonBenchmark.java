@@ -0,0 +1,61 @@
+package org.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.api.service.amortizacao.BigDecimalAmortizacaoEngine;
+import org.api.service.amortizacao.PriceFatorTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialização pelo Jackson da resposta de POST /simulacoes, com prazo curto e
+ * longo (o tamanho da resposta cresce com o número de parcelas).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationResponseJsonBenchmark {
+
+	@Param({ "12", "360" })
+	int meses;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private SimulationResponse response;
+
+	@Setup
+	public void setup() {
+		BigDecimal principal = new BigDecimal("25000.00");
+		BigDecimal taxa = new BigDecimal("0.017900000");
+		BigDecimal pmt = new PriceFatorTable(taxa, 1, null).pmt(principal, meses);
+		BigDecimalAmortizacaoEngine engine = new BigDecimalAmortizacaoEngine();
+		response = new SimulationResponse(
+				1234567890123L,
+				1,
+				"Produto 1",
+				taxa.stripTrailingZeros(),
+				List.of(new ResultadoDTO("SAC", engine.calcularSAC(principal, taxa, meses)),
+						new ResultadoDTO("PRICE", engine.calcularPRICE(principal, taxa, meses, pmt))));
+	}
+
+	@Benchmark
+	public byte[] serializar() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(response);
+	}
+}
@@ -0,0 +1,87 @@
+package org.api.performance;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registro de métricas no caminho de cada requisição: MetricsCalculator.stopTimer
+ * e PercentilHistogram.registrar, com uma thread e com várias threads gravando
+ * na mesma instância (a situação de um endpoint sob carga). Para mudar a
+ * concorrência: -t N.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Compartilhado {
+
+		MetricsCalculator calculator;
+		PercentilHistogram histograma;
+
+		@Setup
+		public void setup() {
+			calculator = new MetricsCalculator("POST", "/simulacoes", "2xx");
+			histograma = new PercentilHistogram();
+		}
+	}
+
+	/** Durações de cada thread, em µs, entre 50 µs e ~50 ms (log-uniforme) */
+	@State(Scope.Thread)
+	public static class Duracoes {
+
+		final long[] micros = new long[1024];
+		int i;
+
+		@Setup
+		public void setup() {
+			SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+			for (int k = 0; k < micros.length; k++) {
+				micros[k] = (long) (50 * Math.pow(1000, random.nextDouble()));
+			}
+		}
+
+		long proxima() {
+			return micros[i++ & (micros.length - 1)];
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void stopTimer(Compartilhado c, Duracoes d) {
+		c.calculator.stopTimer(System.nanoTime() - d.proxima() * 1000, true);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void stopTimerConcorrente(Compartilhado c, Duracoes d) {
+		c.calculator.stopTimer(System.nanoTime() - d.proxima() * 1000, true);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void registrar(Compartilhado c, Duracoes d) {
+		c.histograma.registrar(d.proxima());
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void registrarConcorrente(Compartilhado c, Duracoes d) {
+		c.histograma.registrar(d.proxima());
+	}
+}
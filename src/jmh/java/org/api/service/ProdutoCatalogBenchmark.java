@@ -0,0 +1,119 @@
+package org.api.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.api.database.sqlserver.model.Produto;
+import org.api.database.sqlserver.repository.ProdutoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Busca do produto (o getProduto da simulação):
+ * - catálogo carregado, com e sem produto que atenda;
+ * - catálogo vazio, caindo na consulta ao repositório. O repositório é uma
+ *   versão em memória que filtra a lista como o JPQL do ProdutoRepository, então
+ *   o número mede o caminho de código sem o banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProdutoCatalogBenchmark {
+
+	private static final BigDecimal[] VALORES = {
+			new BigDecimal("200.00"), new BigDecimal("15000.00"), new BigDecimal("250000.00"),
+			new BigDecimal("2000000.00") };
+	private static final int[] PRAZOS = { 12, 36, 72, 120 };
+
+	private ProdutoCatalogService carregado;
+	private ProdutoCatalogService vazio;
+	private int i;
+
+	@Setup
+	public void setup() {
+		ProdutoRepositoryEmMemoria repositorio = new ProdutoRepositoryEmMemoria(List.of(
+				produto(1, "Produto 1", "0.017900000", 200, 10_000, 1, 24),
+				produto(2, "Produto 2", "0.017500000", 10_001, 100_000, 25, 48),
+				produto(3, "Produto 3", "0.018200000", 100_001, 1_000_000, 49, 96),
+				produto(4, "Produto 4", "0.015100000", 1_000_001, null, 97, null)));
+
+		carregado = new ProdutoCatalogService();
+		carregado.produtoRepository = repositorio;
+		carregado.recarregar();
+
+		vazio = new ProdutoCatalogService();
+		vazio.produtoRepository = repositorio;
+	}
+
+	@Benchmark
+	public Produto buscarNoCatalogo() {
+		int n = i++ & 3;
+		// Valor e prazo da mesma faixa: sempre há produto
+		return carregado.buscar(VALORES[n], PRAZOS[n]);
+	}
+
+	@Benchmark
+	public Produto buscarSemProduto() {
+		// Valor da faixa 1 com prazo da faixa 4: nenhum produto atende
+		return carregado.buscar(VALORES[0], PRAZOS[3]);
+	}
+
+	@Benchmark
+	public Produto buscarComCatalogoVazio() {
+		int n = i++ & 3;
+		return vazio.buscar(VALORES[n], PRAZOS[n]);
+	}
+
+	private static Produto produto(int codigo, String nome, String taxa, long minimo, Integer maximo,
+			int minimoMeses, Integer maximoMeses) {
+		Produto p = new Produto();
+		p.codigo = codigo;
+		p.nome = nome;
+		p.taxaJurosMensal = new BigDecimal(taxa);
+		p.valorMinimo = BigDecimal.valueOf(minimo).setScale(2);
+		p.valorMaximo = maximo == null ? null : BigDecimal.valueOf(maximo).setScale(2);
+		p.minimoMeses = (short) minimoMeses;
+		p.maximoMeses = maximoMeses == null ? null : maximoMeses.shortValue();
+		return p;
+	}
+
+	/**
+	 * Substituto do ProdutoRepository sem banco, com o mesmo filtro do JPQL
+	 * (ordem por código, como a chave primária).
+	 */
+	static final class ProdutoRepositoryEmMemoria extends ProdutoRepository {
+
+		private final List<Produto> produtos;
+
+		ProdutoRepositoryEmMemoria(List<Produto> produtos) {
+			this.produtos = produtos;
+		}
+
+		@Override
+		public List<Produto> listAll() {
+			return produtos;
+		}
+
+		@Override
+		public List<Produto> filterProducts(BigDecimal valor, int prazo) {
+			return produtos.stream()
+					.filter(p -> p.valorMinimo.compareTo(valor) <= 0
+							&& (p.valorMaximo == null || p.valorMaximo.compareTo(valor) >= 0)
+							&& p.minimoMeses <= prazo
+							&& (p.maximoMeses == null || p.maximoMeses >= prazo))
+					.toList();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package org.api.service.amortizacao;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.api.dto.ParcelaDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cálculo das parcelas SAC e PRICE nos dois motores, com prazo curto e longo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AmortizacaoBenchmark {
+
+	@Param({ "bigdecimal", "ponto-fixo" })
+	String engine;
+
+	@Param({ "12", "360" })
+	int meses;
+
+	private AmortizacaoEngine motor;
+	private final BigDecimal principal = new BigDecimal("25000.00");
+	private final BigDecimal taxa = new BigDecimal("0.017900000");
+	private BigDecimal pmt;
+
+	@Setup
+	public void setup() {
+		motor = switch (engine) {
+			case "bigdecimal" -> new BigDecimalAmortizacaoEngine();
+			case "ponto-fixo" -> new FixedPointAmortizacaoEngine();
+			default -> throw new IllegalArgumentException(engine);
+		};
+		pmt = new PriceFatorTable(taxa, 1, null).pmt(principal, meses);
+	}
+
+	@Benchmark
+	public List<ParcelaDTO> calcularSAC() {
+		return motor.calcularSAC(principal, taxa, meses);
+	}
+
+	@Benchmark
+	public List<ParcelaDTO> calcularPRICE() {
+		return motor.calcularPRICE(principal, taxa, meses, pmt);
+	}
+}
@@ -0,0 +1,84 @@
+package org.api.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import org.api.performance.jfr.JfrGravacaoService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Gravação do JFR sob demanda. Desligado por padrão (jfr.enabled), já que
+ * grava arquivos no disco do servidor.
+ */
+@Path("/jfr")
+@Produces(MediaType.APPLICATION_JSON)
+public class JfrResource {
+
+	@ConfigProperty(name = "jfr.enabled", defaultValue = "false")
+	boolean enabled;
+
+	@Inject
+	JfrGravacaoService gravacaoService;
+
+	/**
+	 * @param duracao duração ISO-8601 (ex: PT5M); sem ela usa jfr.duracao-maxima
+	 */
+	@POST
+	@Path("/iniciar")
+	public Response iniciar(@QueryParam("duracao") String duracao) {
+		if (!enabled) {
+			return desativado();
+		}
+		try {
+			Duration limite = duracao == null || duracao.isBlank() ? null : Duration.parse(duracao);
+			return Response.ok(Map.of("mensagem", gravacaoService.iniciar(limite))).build();
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("erro", ex.getMessage())).build();
+		}
+	}
+
+	/**
+	 * Salva o que foi gravado até agora, sem parar a gravação.
+	 */
+	@POST
+	@Path("/dump")
+	public Response dump() throws IOException {
+		if (!enabled) {
+			return desativado();
+		}
+		try {
+			return Response.ok(Map.of("arquivo", gravacaoService.despejar().toString())).build();
+		} catch (IllegalStateException ex) {
+			return Response.status(Response.Status.CONFLICT).entity(Map.of("erro", ex.getMessage())).build();
+		}
+	}
+
+	@POST
+	@Path("/parar")
+	public Response parar() throws IOException {
+		if (!enabled) {
+			return desativado();
+		}
+		try {
+			return Response.ok(Map.of("arquivo", gravacaoService.parar().toString())).build();
+		} catch (IllegalStateException ex) {
+			return Response.status(Response.Status.CONFLICT).entity(Map.of("erro", ex.getMessage())).build();
+		}
+	}
+
+	private static Response desativado() {
+		return Response.status(Response.Status.FORBIDDEN)
+				.entity(Map.of("erro", "Gravação JFR desativada (jfr.enabled=false)."))
+				.build();
+	}
+}
@@ -0,0 +1,27 @@
+package org.api.controller;
+
+import org.api.performance.MetricsExporter;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Métricas dos endpoints no formato OpenMetrics, para coleta pelo Prometheus.
+ * Não é medido pelo @TrackMetrics para a coleta não aparecer nas próprias
+ * métricas.
+ */
+@Path("/metrics")
+public class MetricsResource {
+
+	@Inject
+	MetricsExporter exporter;
+
+	@GET
+	public Response metrics() {
+		StreamingOutput body = exporter::escrever;
+		return Response.ok(body, MetricsExporter.CONTENT_TYPE).build();
+	}
+}
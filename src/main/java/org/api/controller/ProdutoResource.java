@@ -0,0 +1,37 @@
+package org.api.controller;
+
+import java.util.List;
+
+import org.api.database.sqlserver.model.Produto;
+import org.api.performance.anottations.TrackMetrics;
+import org.api.service.ProdutoCatalogService;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+@Path("/produtos")
+@Produces(MediaType.APPLICATION_JSON)
+@TrackMetrics
+public class ProdutoResource {
+
+	@Inject
+	ProdutoCatalogService catalogService;
+
+	@GET
+	public List<Produto> listar() {
+		return catalogService.index().produtos();
+	}
+
+	/**
+	 * Recarrega o catálogo do banco sem esperar o próximo ciclo agendado.
+	 */
+	@POST
+	@Path("/recarregar")
+	public List<Produto> recarregar() {
+		return catalogService.recarregar().produtos();
+	}
+}
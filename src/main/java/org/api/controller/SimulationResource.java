@@ -1,15 +1,25 @@
 package org.api.controller;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
 
 import org.api.dto.ResponseAll;
+import org.api.dto.ResponseAllCursor;
 import org.api.dto.ResponseDia;
+import org.api.dto.ResponseLote;
+import org.api.dto.ResponseResumo;
 import org.api.dto.SimulationRequest;
-import org.api.dto.SimulationResponse;
 import org.api.performance.anottations.TrackMetrics;
+import org.api.service.FilaIndisponivelException;
+import org.api.service.SimulacaoExecucao;
+import org.api.service.SimulacaoExportService;
+import org.api.service.SimulacaoPreparada;
 import org.api.service.SimulacaoService;
+import org.api.service.SimulacaoStreamWriter;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
@@ -20,6 +30,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 @Path("/simulacoes")
 @Consumes(MediaType.APPLICATION_JSON)
@@ -29,30 +40,161 @@ public class SimulationResource {
 	@Inject
 	SimulacaoService service;
 
+	@Inject
+	SimulacaoStreamWriter streamWriter;
+
+	@Inject
+	SimulacaoExecucao execucao;
+
+	@Inject
+	SimulacaoExportService exportService;
+
+
+	/**
+	 * Roda em worker, virtual thread ou sem bloquear conforme
+	 * simulacao.execucao (ver {@link SimulacaoExecucao}).
+	 */
+	@POST
+	@TrackMetrics
+	public Uni<Response> simular(@Valid SimulationRequest req) {
+
+		return execucao.simular(req)
+				.map(res -> Response.ok(res).build())
+				.onFailure(IllegalArgumentException.class).recoverWithItem(ex -> Response
+						.status(Response.Status.BAD_REQUEST)
+						.entity(Map.of("erro", ex.getMessage()))
+						.build())
+				.onFailure(FilaIndisponivelException.class).recoverWithItem(ex -> Response
+						.status(Response.Status.SERVICE_UNAVAILABLE)
+						.entity(Map.of("erro", ex.getMessage()))
+						.build());
+	}
+
+
+
+	/**
+	 * Mesmo resultado de POST /simulacoes, mas com as parcelas escritas na
+	 * resposta à medida que são calculadas (memória constante para qualquer prazo).
+	 */
+	@POST
+	@Path("/stream")
+	@TrackMetrics
+	public Response simularStream(@Valid SimulationRequest req) {
+
+		try {
+			SimulacaoPreparada simulacao = service.simularStream(req);
+			StreamingOutput body = out -> streamWriter.escrever(simulacao, out);
+			return Response.ok(body, MediaType.APPLICATION_JSON).build();
+		} catch (IllegalArgumentException ex) {
+			return Response.status(Response.Status.BAD_REQUEST)
+					.entity(Map.of("erro", ex.getMessage()))
+					.build();
+		} catch (FilaIndisponivelException ex) {
+			return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+					.entity(Map.of("erro", ex.getMessage()))
+					.build();
+		}
+	}
 
 
+
+	/**
+	 * Registra a simulação e devolve só o produto e os totais SAC/PRICE, sem as
+	 * parcelas. O custo não cresce com o prazo.
+	 */
 	@POST
+	@Path("/resumo")
 	@TrackMetrics
-	public Response simular(@Valid SimulationRequest req) {
+	public Response simularResumo(@Valid SimulationRequest req) {
 
 		try {
-			SimulationResponse res = service.simular(req);
+			ResponseResumo res = service.simularResumo(req);
 			return Response.ok(res).build();
 		} catch (IllegalArgumentException ex) {
 			return Response.status(Response.Status.BAD_REQUEST)
 					.entity(Map.of("erro", ex.getMessage()))
 					.build();
+		} catch (FilaIndisponivelException ex) {
+			return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+					.entity(Map.of("erro", ex.getMessage()))
+					.build();
 		}
 	}
 
 
 
+	/**
+	 * Calcula várias simulações em uma só requisição. Cada item do resultado traz
+	 * o índice da simulação enviada e o resultado ou o erro daquele item; com
+	 * resumo=true os itens trazem só os totais, como em POST /simulacoes/resumo.
+	 */
+	@POST
+	@Path("/lote")
+	@TrackMetrics
+	public Response simularLote(List<SimulationRequest> reqs, @QueryParam("resumo") boolean resumo) {
+
+		try {
+			ResponseLote<Object> res = service.simularLote(reqs, resumo);
+			return Response.ok(res).build();
+		} catch (IllegalArgumentException ex) {
+			return Response.status(Response.Status.BAD_REQUEST)
+					.entity(Map.of("erro", ex.getMessage()))
+					.build();
+		} catch (FilaIndisponivelException ex) {
+			return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+					.entity(Map.of("erro", ex.getMessage()))
+					.build();
+		}
+	}
+
+
+
+	/**
+	 * Exporta as simulações do período [inicio, fim] em NDJSON (padrão) ou CSV,
+	 * escritas à medida que são lidas do banco.
+	 */
+	@GET
+	@Path("/export")
+	@Produces({ "application/x-ndjson", "text/csv", MediaType.APPLICATION_JSON })
+	@TrackMetrics
+	public Response exportar(
+			@QueryParam("inicio") String inicioReq,
+			@QueryParam("fim") String fimReq,
+			@QueryParam("formato") String formatoReq) {
+
+		try {
+			if (inicioReq == null || inicioReq.isBlank()) {
+				throw new IllegalArgumentException("Informe a data inicial (inicio).");
+			}
+			LocalDate inicio = LocalDate.parse(inicioReq);
+			LocalDate fim = (fimReq == null || fimReq.isBlank()) ? inicio : LocalDate.parse(fimReq);
+			SimulacaoExportService.Formato formato = SimulacaoExportService.Formato.of(formatoReq);
+			exportService.validarPeriodo(inicio, fim);
+
+			StreamingOutput body = out -> exportService.exportar(inicio, fim, formato, out);
+			return Response.ok(body, formato.mediaType).build();
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			return Response.status(Response.Status.BAD_REQUEST)
+					.type(MediaType.APPLICATION_JSON)
+					.entity(Map.of("erro", ex.getMessage()))
+					.build();
+		}
+	}
+
+
+
+	/**
+	 * Listagem paginada. Com o parâmetro cursor (vazio na primeira chamada), usa
+	 * paginação por cursor e devolve o proximoCursor; sem ele, paginação por
+	 * número de página.
+	 */
 	@GET()
 	@Path("/all")
 	@TrackMetrics
-	public ResponseAll getAll(
+	public Response getAll(
 			@QueryParam("pagina") Integer pagina,
-			@QueryParam("qtdRegistrosPagina") Integer qtdRegistrosPagina) {
+			@QueryParam("qtdRegistrosPagina") Integer qtdRegistrosPagina,
+			@QueryParam("cursor") String cursor) {
 
 		if (pagina == null || pagina < 1) {
 			pagina = 1;
@@ -61,8 +203,19 @@ public class SimulationResource {
 			qtdRegistrosPagina = 10;
 		}
 
+		if (cursor != null) {
+			try {
+				ResponseAllCursor response = service.getAllSimulacoesCursor(cursor, qtdRegistrosPagina);
+				return Response.ok(response).build();
+			} catch (IllegalArgumentException ex) {
+				return Response.status(Response.Status.BAD_REQUEST)
+						.entity(Map.of("erro", ex.getMessage()))
+						.build();
+			}
+		}
+
 		ResponseAll response = service.getAllSimulacoes(pagina, qtdRegistrosPagina);
-		return response;
+		return Response.ok(response).build();
 	}
 
 
@@ -5,11 +5,13 @@ import java.time.LocalDate;
 import org.api.dto.ResponseTelemetry;
 import org.api.performance.MetricsManager;
 import org.api.performance.anottations.TrackMetrics;
+import org.api.worker.SimulationQueueWorker;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 
 @Path("/telemetria")
@@ -20,8 +22,16 @@ public class TelemetryResource {
 	@Inject
 	private MetricsManager metricsManager;
 
+	@Inject
+	SimulationQueueWorker worker;
+
+	/**
+	 * @param metodo filtra pelo método HTTP (ex: GET)
+	 * @param rota   filtra pelo template da rota (ex: /simulacoes/all)
+	 */
 	@GET
-	public ResponseTelemetry telemetria() {
-		return new ResponseTelemetry(LocalDate.now(), metricsManager.getAllMetricsSnapshots());
+	public ResponseTelemetry telemetria(@QueryParam("metodo") String metodo, @QueryParam("rota") String rota) {
+		return new ResponseTelemetry(LocalDate.now(), metricsManager.getAllMetricsSnapshots(metodo, rota),
+				worker.snapshot(), worker.pipelineSnapshot());
 	}
 }
@@ -9,14 +9,15 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "SIMULACAO")
+@Table(name = "SIMULACAO", indexes = @Index(name = "IX_SIMULACAO_DATA_REFERENCIA", columnList = "DATA_REFERENCIA"))
 public class Simulacao extends PanacheEntityBase {
 
 	@Id
-	@Column(name = "ID_SIMULACAO", nullable = false, unique = true)
+	@Column(name = "ID_SIMULACAO", nullable = false)
 	public Long id;
 
 	@Column(name = "CO_PRODUTO", nullable = false)
@@ -0,0 +1,74 @@
+package org.api.database.postgres.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Totais diários por produto, mantidos pelo worker na mesma transação que
+ * grava as simulações (ver SimulacaoResumoDiaRepository).
+ */
+@Entity
+@Table(name = "SIMULACAO_RESUMO_DIA")
+@IdClass(SimulacaoResumoDia.Chave.class)
+public class SimulacaoResumoDia extends PanacheEntityBase {
+
+	@Id
+	@Column(name = "DATA_REFERENCIA", nullable = false)
+	public LocalDate dataReferencia;
+
+	@Id
+	@Column(name = "CO_PRODUTO", nullable = false)
+	public Integer codigoProduto;
+
+	@Column(name = "NO_PRODUTO", nullable = false, length = 200)
+	public String nomeProduto;
+
+	@Column(name = "QT_SIMULACOES", nullable = false)
+	public long quantidade;
+
+	@Column(name = "SOMA_TAXA_JUROS", nullable = false, precision = 38, scale = 9)
+	public BigDecimal somaTaxaJuros;
+
+	@Column(name = "SOMA_VALOR_DESEJADO", nullable = false, precision = 38, scale = 2)
+	public BigDecimal somaValorDesejado;
+
+	@Column(name = "SOMA_VALOR_TOTAL_PARCELAS", nullable = false, precision = 38, scale = 2)
+	public BigDecimal somaValorTotalParcelas;
+
+	public static class Chave implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		public LocalDate dataReferencia;
+		public Integer codigoProduto;
+
+		public Chave() {
+		}
+
+		public Chave(LocalDate dataReferencia, Integer codigoProduto) {
+			this.dataReferencia = dataReferencia;
+			this.codigoProduto = codigoProduto;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Chave c
+					&& Objects.equals(dataReferencia, c.dataReferencia)
+					&& Objects.equals(codigoProduto, c.codigoProduto);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(dataReferencia, codigoProduto);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package org.api.database.postgres.repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.api.dto.QueueStruct;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Grava lotes de simulações no SIMULACAO com COPY ... FROM STDIN (CSV), sem
+ * passar pelo contexto de persistência do Hibernate. O COPY e a atualização
+ * do SIMULACAO_RESUMO_DIA rodam na mesma transação: ou entra o lote inteiro
+ * com os totais, ou nada.
+ */
+@ApplicationScoped
+public class SimulacaoCopyWriter {
+
+	private static final String COPY_SQL = "COPY SIMULACAO (ID_SIMULACAO, CO_PRODUTO, NO_PRODUTO, PC_TAXA_JUROS, "
+			+ "VALOR_DESEJADO, PRAZO, DATA_REFERENCIA, VALOR_TOTAL_PARCELAS) FROM STDIN WITH (FORMAT csv)";
+
+	// Tamanho médio estimado de uma linha em CSV
+	private static final int BYTES_POR_LINHA = 96;
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	@Inject
+	SimulacaoResumoDiaRepository resumoDiaRepository;
+
+	/**
+	 * Copia o lote para o banco.
+	 *
+	 * @return quantidade de linhas gravadas
+	 */
+	public long copiar(List<QueueStruct> itens) throws SQLException {
+		if (itens.isEmpty()) {
+			return 0;
+		}
+		byte[] dados = csv(itens);
+		try (Connection conn = dataSource.getConnection()) {
+			conn.setAutoCommit(false);
+			try {
+				long linhas = copiar(conn, dados);
+				resumoDiaRepository.acumular(conn, itens);
+				conn.commit();
+				return linhas;
+			} catch (SQLException | RuntimeException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		}
+	}
+
+	private static long copiar(Connection conn, byte[] dados) throws SQLException {
+		CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+		try {
+			copy.writeToCopy(dados, 0, dados.length);
+			return copy.endCopy();
+		} finally {
+			if (copy.isActive()) {
+				copy.cancelCopy();
+			}
+		}
+	}
+
+	static byte[] csv(List<QueueStruct> itens) {
+		StringBuilder sb = new StringBuilder(itens.size() * BYTES_POR_LINHA);
+		for (QueueStruct item : itens) {
+			sb.append(item.simulacaoId()).append(',');
+			valor(sb, item.codigoProduto()).append(',');
+			texto(sb, item.nomeProduto()).append(',');
+			decimal(sb, item.taxaJurosMensal()).append(',');
+			decimal(sb, item.valorDesejado()).append(',');
+			valor(sb, item.prazo()).append(',');
+			valor(sb, item.dataReferencia()).append(',');
+			decimal(sb, item.valorTotalParcelas()).append('\n');
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	// Campo vazio sem aspas é NULL no CSV do COPY
+	private static StringBuilder valor(StringBuilder sb, Object valor) {
+		return valor == null ? sb : sb.append(valor);
+	}
+
+	private static StringBuilder decimal(StringBuilder sb, BigDecimal valor) {
+		return valor == null ? sb : sb.append(valor.toPlainString());
+	}
+
+	// Sempre entre aspas (string vazia não vira NULL); aspas internas são duplicadas
+	private static StringBuilder texto(StringBuilder sb, String valor) {
+		if (valor == null) {
+			return sb;
+		}
+		sb.append('"');
+		for (int i = 0; i < valor.length(); i++) {
+			char c = valor.charAt(i);
+			if (c == '"') {
+				sb.append('"');
+			}
+			sb.append(c);
+		}
+		return sb.append('"');
+	}
+}
@@ -1,5 +1,10 @@
 package org.api.database.postgres.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.api.database.postgres.model.Simulacao;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
@@ -7,4 +12,17 @@ import jakarta.enterprise.context.ApplicationScoped;
 
 @ApplicationScoped
 public class SimulacaoRepository implements PanacheRepository<Simulacao> {
+
+	/**
+	 * IDs, dentre os informados, que já estão gravados. Os dias de referência
+	 * limitam a busca às partições envolvidas quando a tabela é particionada.
+	 */
+	public Set<Long> idsExistentes(Collection<Long> ids, Collection<LocalDate> dias) {
+		return new HashSet<>(getEntityManager()
+				.createQuery("select s.id from Simulacao s where s.id in :ids and s.dataReferencia in :dias",
+						Long.class)
+				.setParameter("ids", ids)
+				.setParameter("dias", dias)
+				.getResultList());
+	}
 }
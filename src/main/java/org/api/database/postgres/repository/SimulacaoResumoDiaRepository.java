@@ -0,0 +1,129 @@
+package org.api.database.postgres.repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.api.database.postgres.model.SimulacaoResumoDia;
+import org.api.dto.QueueStruct;
+import org.hibernate.Session;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class SimulacaoResumoDiaRepository
+		implements PanacheRepositoryBase<SimulacaoResumoDia, SimulacaoResumoDia.Chave> {
+
+	private static final String UPSERT_SQL = "INSERT INTO SIMULACAO_RESUMO_DIA (DATA_REFERENCIA, CO_PRODUTO, "
+			+ "NO_PRODUTO, QT_SIMULACOES, SOMA_TAXA_JUROS, SOMA_VALOR_DESEJADO, SOMA_VALOR_TOTAL_PARCELAS) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?) "
+			+ "ON CONFLICT (DATA_REFERENCIA, CO_PRODUTO) DO UPDATE SET "
+			+ "NO_PRODUTO = EXCLUDED.NO_PRODUTO, "
+			+ "QT_SIMULACOES = SIMULACAO_RESUMO_DIA.QT_SIMULACOES + EXCLUDED.QT_SIMULACOES, "
+			+ "SOMA_TAXA_JUROS = SIMULACAO_RESUMO_DIA.SOMA_TAXA_JUROS + EXCLUDED.SOMA_TAXA_JUROS, "
+			+ "SOMA_VALOR_DESEJADO = SIMULACAO_RESUMO_DIA.SOMA_VALOR_DESEJADO + EXCLUDED.SOMA_VALOR_DESEJADO, "
+			+ "SOMA_VALOR_TOTAL_PARCELAS = SIMULACAO_RESUMO_DIA.SOMA_VALOR_TOTAL_PARCELAS "
+			+ "+ EXCLUDED.SOMA_VALOR_TOTAL_PARCELAS";
+
+	private static final String RECONSTRUIR_SQL = "INSERT INTO SIMULACAO_RESUMO_DIA (DATA_REFERENCIA, CO_PRODUTO, "
+			+ "NO_PRODUTO, QT_SIMULACOES, SOMA_TAXA_JUROS, SOMA_VALOR_DESEJADO, SOMA_VALOR_TOTAL_PARCELAS) "
+			+ "SELECT DATA_REFERENCIA, CO_PRODUTO, MAX(NO_PRODUTO), COUNT(*), SUM(PC_TAXA_JUROS), "
+			+ "SUM(VALOR_DESEJADO), SUM(VALOR_TOTAL_PARCELAS) "
+			+ "FROM SIMULACAO WHERE DATA_REFERENCIA = ? GROUP BY DATA_REFERENCIA, CO_PRODUTO "
+			+ "ON CONFLICT (DATA_REFERENCIA, CO_PRODUTO) DO UPDATE SET "
+			+ "NO_PRODUTO = EXCLUDED.NO_PRODUTO, "
+			+ "QT_SIMULACOES = EXCLUDED.QT_SIMULACOES, "
+			+ "SOMA_TAXA_JUROS = EXCLUDED.SOMA_TAXA_JUROS, "
+			+ "SOMA_VALOR_DESEJADO = EXCLUDED.SOMA_VALOR_DESEJADO, "
+			+ "SOMA_VALOR_TOTAL_PARCELAS = EXCLUDED.SOMA_VALOR_TOTAL_PARCELAS";
+
+	// Ordem fixa das linhas no upsert, para que inseridores concorrentes travem as linhas na mesma ordem
+	private static final Comparator<SimulacaoResumoDia.Chave> ORDEM = Comparator
+			.comparing((SimulacaoResumoDia.Chave c) -> c.dataReferencia)
+			.thenComparing(c -> c.codigoProduto);
+
+	public List<SimulacaoResumoDia> doDia(LocalDate dia) {
+		return find("dataReferencia", Sort.by("codigoProduto"), dia).list();
+	}
+
+	/**
+	 * Soma o lote aos totais do dia/produto, na transação JTA corrente (caminho
+	 * do Hibernate).
+	 */
+	public void acumular(List<QueueStruct> itens) {
+		getEntityManager().unwrap(Session.class).doWork(conn -> acumular(conn, itens));
+	}
+
+	/**
+	 * Soma o lote aos totais do dia/produto usando a conexão informada, sem
+	 * controlar a transação (caminho do COPY).
+	 */
+	public void acumular(Connection conn, List<QueueStruct> itens) throws SQLException {
+		Map<SimulacaoResumoDia.Chave, Acumulado> porChave = new TreeMap<>(ORDEM);
+		for (QueueStruct item : itens) {
+			porChave.computeIfAbsent(new SimulacaoResumoDia.Chave(item.dataReferencia(), item.codigoProduto()),
+					k -> new Acumulado()).somar(item);
+		}
+		try (PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+			for (var entry : porChave.entrySet()) {
+				Acumulado a = entry.getValue();
+				ps.setDate(1, Date.valueOf(entry.getKey().dataReferencia));
+				ps.setInt(2, entry.getKey().codigoProduto);
+				ps.setString(3, a.nomeProduto);
+				ps.setLong(4, a.quantidade);
+				ps.setBigDecimal(5, a.somaTaxaJuros);
+				ps.setBigDecimal(6, a.somaValorDesejado);
+				ps.setBigDecimal(7, a.somaValorTotalParcelas);
+				ps.addBatch();
+			}
+			ps.executeBatch();
+		}
+	}
+
+	/**
+	 * Recalcula os totais do dia a partir do SIMULACAO, substituindo os que
+	 * existirem. Cobre simulações gravadas sem resumo (ex: por nós ainda na versão
+	 * anterior durante o deploy).
+	 *
+	 * A tabela de resumo fica travada contra os upserts do worker até o commit:
+	 * transações do worker já em andamento terminam antes do SELECT (e entram na
+	 * soma), e as seguintes somam por cima do total recalculado.
+	 *
+	 * @return quantidade de produtos com resumo no dia
+	 */
+	public int reconstruir(Connection conn, LocalDate dia) throws SQLException {
+		try (Statement st = conn.createStatement();
+				PreparedStatement ps = conn.prepareStatement(RECONSTRUIR_SQL)) {
+			st.execute("LOCK TABLE SIMULACAO_RESUMO_DIA IN SHARE ROW EXCLUSIVE MODE");
+			ps.setDate(1, Date.valueOf(dia));
+			return ps.executeUpdate();
+		}
+	}
+
+	private static final class Acumulado {
+
+		String nomeProduto;
+		long quantidade;
+		BigDecimal somaTaxaJuros = BigDecimal.ZERO;
+		BigDecimal somaValorDesejado = BigDecimal.ZERO;
+		BigDecimal somaValorTotalParcelas = BigDecimal.ZERO;
+
+		void somar(QueueStruct item) {
+			nomeProduto = item.nomeProduto();
+			quantidade++;
+			somaTaxaJuros = somaTaxaJuros.add(item.taxaJurosMensal());
+			somaValorDesejado = somaValorDesejado.add(item.valorDesejado());
+			somaValorTotalParcelas = somaValorTotalParcelas.add(item.valorTotalParcelas());
+		}
+	}
+}
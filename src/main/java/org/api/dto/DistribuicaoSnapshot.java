@@ -0,0 +1,18 @@
+package org.api.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+// Distribuição de uma medida do pipeline da fila; unidade "ms" ou "itens"
+@RegisterForReflection
+public record DistribuicaoSnapshot(
+		String nome,
+		String unidade,
+		long qtdAmostras,
+		double media,
+		double maximo,
+		double p50,
+		double p90,
+		double p95,
+		double p99,
+		double p999) {
+}
@@ -0,0 +1,18 @@
+package org.api.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+// Métricas dos últimos N minutos (os minutos completos mais o minuto corrente)
+@RegisterForReflection
+public record MetricsJanela(
+		int minutos,
+		long qtdRequisicoes,
+		double percentualSucesso,
+		double tempoMedio,
+		double tempoMaximo,
+		double p50,
+		double p90,
+		double p95,
+		double p99,
+		double p999) {
+}
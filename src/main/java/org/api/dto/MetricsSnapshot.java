@@ -1,16 +1,25 @@
 package org.api.dto;
 
+import java.util.List;
+
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
-// Snapshot imutável para transporte/JSON
+// Snapshot imutável para transporte/JSON; tempos em ms com resolução de µs
 @RegisterForReflection
 public record MetricsSnapshot(
 		String nomeApi,
+		String metodo,
+		String rota,
+		String classeStatus,
 		long qtdRequisicoes,
-		long tempoMedio,
-		long tempoMinimo,
-		long tempoMaximo,
+		double tempoMedio,
+		double tempoMinimo,
+		double tempoMaximo,
 		double percentualSucesso,
-		Long p99,
-		Long p95) {
-}
\ No newline at end of file
+		double p50,
+		double p90,
+		double p95,
+		double p99,
+		double p999,
+		List<MetricsJanela> janelas) {
+}
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
+// enfileiradoEm: epoch ms do enqueue; null em itens gravados antes do campo existir
 @RegisterForReflection
 public record QueueStruct(
 		long simulacaoId,
@@ -14,5 +15,6 @@ public record QueueStruct(
 		BigDecimal valorDesejado,
 		Integer prazo,
 		LocalDate dataReferencia,
-		BigDecimal valorTotalParcelas) {
+		BigDecimal valorTotalParcelas,
+		Long enfileiradoEm) {
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package org.api.dto;
+
+import java.util.List;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public record ResponseAllCursor(
+		String proximoCursor,
+		Long qtdRegistros,
+		Integer qtdRegistrosPagina,
+		List<ResponseAll.Registro> registros) {
+}
@@ -0,0 +1,18 @@
+package org.api.dto;
+
+import java.util.List;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public record ResponseLote<T>(
+		int qtdSucesso,
+		int qtdErro,
+		List<Item<T>> simulacoes) {
+	@RegisterForReflection
+	public record Item<T>(
+			int indice,
+			T resultado,
+			String erro) {
+	}
+}
@@ -0,0 +1,21 @@
+package org.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public record ResponseResumo(
+		long idSimulacao,
+		int codigoProduto,
+		String descricaoProduto,
+		BigDecimal taxaJuros,
+		int qtdParcelas,
+		List<Total> resultadoSimulacao) {
+	@RegisterForReflection
+	public record Total(
+			String tipo,
+			BigDecimal valorTotalPrestacoes) {
+	}
+}
@@ -8,5 +8,7 @@ import io.quarkus.runtime.annotations.RegisterForReflection;
 @RegisterForReflection
 public record ResponseTelemetry(
 		LocalDate dataReferencia,
-		List<MetricsSnapshot> listaEndpoints) {
+		List<MetricsSnapshot> listaEndpoints,
+		WorkerSnapshot worker,
+		List<DistribuicaoSnapshot> pipeline) {
 }
\ No newline at end of file
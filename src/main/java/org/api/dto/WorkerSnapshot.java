@@ -0,0 +1,16 @@
+package org.api.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+// Estado do dimensionamento de lotes do worker da fila
+@RegisterForReflection
+public record WorkerSnapshot(
+		int tamanhoLote,
+		String motivo,
+		long profundidadeFila,
+		double latenciaGravacaoMs,
+		int limitePorLatencia,
+		int tamanhoMinimo,
+		int tamanhoMaximo,
+		boolean adaptativo) {
+}
@@ -24,9 +24,6 @@ public class EventHubProducer {
 	@ConfigProperty(name = "eventhub.connection-string", defaultValue = "")
 	String connectionString;
 
-	@ConfigProperty(name = "queue.batch.size", defaultValue = "100")
-	int batchSize;
-
 	@Inject
 	ObjectMapper mapper;
 
@@ -45,7 +42,7 @@ public class EventHubProducer {
 	 */
 	public void sendItens(List<QueueStruct> itens) {
 
-		List<EventData> batch = new ArrayList<>(batchSize);
+		List<EventData> batch = new ArrayList<>(itens.size());
 
 		for (QueueStruct item : itens) {
 			try {
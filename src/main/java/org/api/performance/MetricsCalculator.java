@@ -11,25 +11,46 @@ import org.api.dto.MetricsSnapshot;
  * Armazena:
  * - total de requisições
  * - total de sucessos (HTTP 200, ou conforme informado)
- * - tempo total acumulado (ms)
- * - tempo mínimo / máximo (ms)
+ * - tempo total acumulado (µs)
+ * - tempo mínimo / máximo (µs)
+ * - histograma log-linear para os percentis
+ * - as mesmas medidas nas janelas de 1, 5 e 15 minutos ({@link MetricsJanelas})
  *
  * Thread-safe e lock-free (usa LongAdder / AtomicLong).
  */
 public class MetricsCalculator {
 
 	private final String nomeApi;
+	private final String metodo;
+	private final String rota;
+	private final String classeStatus;
 
 	private final LongAdder totalRequisicoes = new LongAdder();
 	private final LongAdder sucessos = new LongAdder();
-	private final LongAdder tempoTotalMillis = new LongAdder();
-	private final AtomicLong tempoMinimoMillis = new AtomicLong(Long.MAX_VALUE);
-	private final AtomicLong tempoMaximoMillis = new AtomicLong(Long.MIN_VALUE);
+	private final LongAdder tempoTotalMicros = new LongAdder();
+	private final AtomicLong tempoMinimoMicros = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong tempoMaximoMicros = new AtomicLong(Long.MIN_VALUE);
 
 	private final PercentilHistogram percentilHistogram;
+	private final MetricsJanelas janelas = new MetricsJanelas();
 
 	public MetricsCalculator(String nomeApi) {
+		this(nomeApi, null, null, null);
+	}
+
+	/**
+	 * Série de um endpoint: método HTTP + rota (template do @Path) + classe de
+	 * status (2xx, 4xx...).
+	 */
+	public MetricsCalculator(String metodo, String rota, String classeStatus) {
+		this(metodo + " " + rota, metodo, rota, classeStatus);
+	}
+
+	private MetricsCalculator(String nomeApi, String metodo, String rota, String classeStatus) {
 		this.nomeApi = nomeApi;
+		this.metodo = metodo;
+		this.rota = rota;
+		this.classeStatus = classeStatus;
 		this.percentilHistogram = new PercentilHistogram();
 	}
 
@@ -46,62 +67,95 @@ public class MetricsCalculator {
 	 * @param sucesso true se a requisição foi considerada sucesso (ex: status 200)
 	 */
 	public void stopTimer(long startTime, boolean sucesso) {
-		long durNanos = System.nanoTime() - startTime;
-		long durMillis = TimeUnit.NANOSECONDS.toMillis(durNanos);
-		record(durMillis, sucesso);
+		long fim = System.nanoTime();
+		long durMicros = TimeUnit.NANOSECONDS.toMicros(fim - startTime);
+		record(durMicros, sucesso);
+		janelas.registrar(fim, durMicros, sucesso);
 	}
 
 	/**
-	 * Registra uma requisição com a duração em milissegundos.
+	 * Registra uma requisição com a duração em microssegundos.
 	 */
-	private void record(long duracaoMillis, boolean sucesso) {
+	private void record(long duracaoMicros, boolean sucesso) {
 		totalRequisicoes.increment();
-		tempoTotalMillis.add(duracaoMillis);
+		tempoTotalMicros.add(duracaoMicros);
 		// Atualiza min
-		atualizarMin(duracaoMillis);
+		atualizarMin(duracaoMicros);
 		// Atualiza max
-		atualizarMax(duracaoMillis);
+		atualizarMax(duracaoMicros);
 		if (sucesso) {
 			sucessos.increment();
 		}
-		percentilHistogram.registrar(duracaoMillis);
+		percentilHistogram.registrar(duracaoMicros);
 	}
 
 	private void atualizarMin(long valor) {
 		long prev;
 		do {
-			prev = tempoMinimoMillis.get();
+			prev = tempoMinimoMicros.get();
 			if (valor >= prev)
 				return;
-		} while (!tempoMinimoMillis.compareAndSet(prev, valor));
+		} while (!tempoMinimoMicros.compareAndSet(prev, valor));
 	}
 
 	private void atualizarMax(long valor) {
 		long prev;
 		do {
-			prev = tempoMaximoMillis.get();
+			prev = tempoMaximoMicros.get();
 			if (valor <= prev)
 				return;
-		} while (!tempoMaximoMillis.compareAndSet(prev, valor));
+		} while (!tempoMaximoMicros.compareAndSet(prev, valor));
+	}
+
+	String metodo() {
+		return metodo;
+	}
+
+	String rota() {
+		return rota;
+	}
+
+	String classeStatus() {
+		return classeStatus;
+	}
+
+	long somaMicros() {
+		return tempoTotalMicros.sum();
+	}
+
+	long maximoMicros() {
+		return Math.max(0L, tempoMaximoMicros.get());
+	}
+
+	/** Soma as contagens do histograma em {@code destino} (sem alocar) */
+	void acumularHistograma(long[] destino) {
+		percentilHistogram.acumularEm(destino);
 	}
 
 	public MetricsSnapshot snapshot() {
 		long total = totalRequisicoes.sum();
 		long sucesso = sucessos.sum();
-		long soma = tempoTotalMillis.sum();
-		long min = tempoMinimoMillis.get();
-		long max = tempoMaximoMillis.get();
+		long soma = tempoTotalMicros.sum();
+		long min = tempoMinimoMicros.get();
+		long max = tempoMaximoMicros.get();
 
 		if (total == 0) {
 			return new MetricsSnapshot(
 					nomeApi,
+					metodo,
+					rota,
+					classeStatus,
 					0,
-					0L,
-					0L,
-					0L,
 					0.0,
-					0L,
-					0L);
+					0.0,
+					0.0,
+					0.0,
+					0.0,
+					0.0,
+					0.0,
+					0.0,
+					0.0,
+					janelas.snapshot());
 		}
 
 		if (min == Long.MAX_VALUE)
@@ -109,19 +163,35 @@ public class MetricsCalculator {
 		if (max == Long.MIN_VALUE)
 			max = 0L;
 
-		long media = soma / total;
+		long[] contagens = percentilHistogram.contagens();
 		double percentualSucesso = (sucesso * 100.0) / total;
 		percentualSucesso = Math.round(percentualSucesso * 100.0) / 100.0;
 
 		return new MetricsSnapshot(
 				nomeApi,
+				metodo,
+				rota,
+				classeStatus,
 				total,
-				media,
-				min,
-				max,
+				millis(soma / total),
+				millis(min),
+				millis(max),
 				percentualSucesso,
-				percentilHistogram.p99(),
-				percentilHistogram.p95()
+				percentil(contagens, 50.0, max),
+				percentil(contagens, 90.0, max),
+				percentil(contagens, 95.0, max),
+				percentil(contagens, 99.0, max),
+				percentil(contagens, 99.9, max),
+				janelas.snapshot()
 		);
 	}
+
+	// O bucket do histograma pode passar do máximo observado
+	static double percentil(long[] contagens, double percentil, long maxMicros) {
+		return millis(Math.min(PercentilHistogram.calcularPercentil(contagens, percentil), maxMicros));
+	}
+
+	static double millis(long micros) {
+		return micros / 1000.0;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package org.api.performance;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.api.dto.DistribuicaoSnapshot;
+
+/**
+ * Distribuição de uma medida qualquer (duração, tamanho de lote, profundidade
+ * da fila) sobre o histograma log-linear. Durações são registradas em µs e
+ * lidas em ms; contagens são lidas como registradas.
+ *
+ * Thread-safe e lock-free, como o {@link MetricsCalculator}.
+ */
+public class MetricsDistribuicao {
+
+	private final String nome;
+	private final boolean duracao;
+
+	private final LongAdder amostras = new LongAdder();
+	private final LongAdder soma = new LongAdder();
+	private final AtomicLong maximo = new AtomicLong();
+	private final PercentilHistogram histograma = new PercentilHistogram();
+
+	private MetricsDistribuicao(String nome, boolean duracao) {
+		this.nome = nome;
+		this.duracao = duracao;
+	}
+
+	public static MetricsDistribuicao duracao(String nome) {
+		return new MetricsDistribuicao(nome, true);
+	}
+
+	public static MetricsDistribuicao contagem(String nome) {
+		return new MetricsDistribuicao(nome, false);
+	}
+
+	/** Duração desde {@code inicioNanos} (System.nanoTime()) */
+	public void registrarDesde(long inicioNanos) {
+		registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicioNanos));
+	}
+
+	/** Valor em µs (durações) ou na própria unidade (contagens) */
+	public void registrar(long valor) {
+		if (valor < 0) {
+			valor = 0;
+		}
+		amostras.increment();
+		soma.add(valor);
+		histograma.registrar(valor);
+		long prev;
+		do {
+			prev = maximo.get();
+			if (valor <= prev)
+				return;
+		} while (!maximo.compareAndSet(prev, valor));
+	}
+
+	public DistribuicaoSnapshot snapshot() {
+		long total = amostras.sum();
+		String unidade = duracao ? "ms" : "itens";
+		if (total == 0) {
+			return new DistribuicaoSnapshot(nome, unidade, 0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+		}
+		long max = maximo.get();
+		long[] contagens = histograma.contagens();
+		return new DistribuicaoSnapshot(
+				nome,
+				unidade,
+				total,
+				valor((double) soma.sum() / total),
+				valor(max),
+				percentil(contagens, 50.0, max),
+				percentil(contagens, 90.0, max),
+				percentil(contagens, 95.0, max),
+				percentil(contagens, 99.0, max),
+				percentil(contagens, 99.9, max));
+	}
+
+	private double percentil(long[] contagens, double percentil, long max) {
+		return valor(Math.min(PercentilHistogram.calcularPercentil(contagens, percentil), max));
+	}
+
+	private double valor(double bruto) {
+		return duracao ? bruto / 1000.0 : Math.round(bruto * 100.0) / 100.0;
+	}
+}
@@ -0,0 +1,132 @@
+package org.api.performance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Exporta as métricas dos endpoints no formato de texto OpenMetrics
+ * (Prometheus).
+ *
+ * Cada série (método + rota + classe de status) vira um histograma cumulativo
+ * http_server_requests_seconds com limites fixos de {@link #LIMITES_MICROS},
+ * calculados a partir do histograma log-linear; o erro de cada limite é o
+ * mesmo dos percentis (menos de 1/64). Também exporta o máximo observado.
+ *
+ * O texto é montado em um buffer reaproveitado, com os rótulos de cada série
+ * renderizados uma vez só, então uma coleta não cria objetos por série.
+ * Coletas simultâneas são serializadas.
+ */
+@ApplicationScoped
+public class MetricsExporter {
+
+	public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+	private static final String HISTOGRAMA = "http_server_requests_seconds";
+	private static final String MAXIMO = "http_server_requests_max_seconds";
+
+	private static final byte[] CABECALHO_HISTOGRAMA = ("# TYPE " + HISTOGRAMA + " histogram\n"
+			+ "# UNIT " + HISTOGRAMA + " seconds\n"
+			+ "# HELP " + HISTOGRAMA + " Tempo de resposta por método, rota e classe de status.\n")
+			.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] CABECALHO_MAXIMO = ("# TYPE " + MAXIMO + " gauge\n"
+			+ "# UNIT " + MAXIMO + " seconds\n"
+			+ "# HELP " + MAXIMO + " Maior tempo de resposta desde a inicialização.\n")
+			.getBytes(StandardCharsets.UTF_8);
+
+	static final long[] LIMITES_MICROS = {
+			100, 250, 500,
+			1_000, 2_500, 5_000,
+			10_000, 25_000, 50_000,
+			100_000, 250_000, 500_000,
+			1_000_000, 2_500_000, 5_000_000, 10_000_000 };
+
+	// Último bucket do histograma log-linear contado em cada limite
+	private static final int[] ULTIMO_BUCKET = new int[LIMITES_MICROS.length];
+	private static final byte[][] LE = new byte[LIMITES_MICROS.length][];
+
+	static {
+		for (int i = 0; i < LIMITES_MICROS.length; i++) {
+			ULTIMO_BUCKET[i] = PercentilHistogram.indice(LIMITES_MICROS[i]);
+			LE[i] = new OpenMetricsWriter(24).ascii("le=\"").segundos(LIMITES_MICROS[i]).u8('"').toByteArray();
+		}
+	}
+
+	@Inject
+	MetricsManager metricsManager;
+
+	private final OpenMetricsWriter writer = new OpenMetricsWriter(32 * 1024);
+	private final long[] contagens = new long[PercentilHistogram.BUCKETS];
+	private final Map<MetricsCalculator, byte[]> rotulos = new ConcurrentHashMap<>();
+
+	public synchronized void escrever(OutputStream out) throws IOException {
+		writer.reset();
+		writer.bytes(CABECALHO_HISTOGRAMA);
+		for (RotaMetricas rota : metricsManager.rotas()) {
+			for (int c = 0; c < RotaMetricas.classes(); c++) {
+				MetricsCalculator serie = rota.serie(c);
+				if (serie != null) {
+					histograma(serie);
+				}
+			}
+		}
+		writer.bytes(CABECALHO_MAXIMO);
+		for (RotaMetricas rota : metricsManager.rotas()) {
+			for (int c = 0; c < RotaMetricas.classes(); c++) {
+				MetricsCalculator serie = rota.serie(c);
+				if (serie != null) {
+					writer.ascii(MAXIMO).u8('{').bytes(rotulos(serie)).ascii("} ")
+							.segundos(serie.maximoMicros()).u8('\n');
+				}
+			}
+		}
+		writer.ascii("# EOF\n");
+		writer.writeTo(out);
+	}
+
+	private void histograma(MetricsCalculator serie) {
+		Arrays.fill(contagens, 0);
+		serie.acumularHistograma(contagens);
+		byte[] r = rotulos(serie);
+
+		long acumulado = 0;
+		int i = 0;
+		for (int b = 0; b < LIMITES_MICROS.length; b++) {
+			for (; i <= ULTIMO_BUCKET[b]; i++) {
+				acumulado += contagens[i];
+			}
+			writer.ascii(HISTOGRAMA).ascii("_bucket{").bytes(r).u8(',').bytes(LE[b]).ascii("} ")
+					.numero(acumulado).u8('\n');
+		}
+		for (; i < contagens.length; i++) {
+			acumulado += contagens[i];
+		}
+		// _count sai do próprio histograma para bater com o bucket +Inf
+		writer.ascii(HISTOGRAMA).ascii("_bucket{").bytes(r).ascii(",le=\"+Inf\"} ").numero(acumulado).u8('\n');
+		writer.ascii(HISTOGRAMA).ascii("_count{").bytes(r).ascii("} ").numero(acumulado).u8('\n');
+		writer.ascii(HISTOGRAMA).ascii("_sum{").bytes(r).ascii("} ").segundos(serie.somaMicros()).u8('\n');
+	}
+
+	private byte[] rotulos(MetricsCalculator serie) {
+		byte[] r = rotulos.get(serie);
+		if (r == null) {
+			r = rotulos.computeIfAbsent(serie, MetricsExporter::renderizarRotulos);
+		}
+		return r;
+	}
+
+	private static byte[] renderizarRotulos(MetricsCalculator serie) {
+		return new OpenMetricsWriter(64)
+				.ascii("method=\"").bytes(OpenMetricsWriter.rotulo(serie.metodo()))
+				.ascii("\",route=\"").bytes(OpenMetricsWriter.rotulo(serie.rota()))
+				.ascii("\",status=\"").bytes(OpenMetricsWriter.rotulo(serie.classeStatus()))
+				.u8('"')
+				.toByteArray();
+	}
+}
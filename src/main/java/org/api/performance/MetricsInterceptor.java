@@ -2,13 +2,14 @@ package org.api.performance;
 
 import org.api.performance.anottations.TrackMetrics;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
-import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
-import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.core.StreamingOutput;
 
 @TrackMetrics
 @Interceptor
@@ -17,27 +18,55 @@ public class MetricsInterceptor {
 	@Inject
 	MetricsManager metricsManager;
 
-	@Context
-	UriInfo uriInfo;
-
 	@AroundInvoke
 	public Object track(InvocationContext ctx) throws Exception {
-		String path = uriInfo.getPath();
-		var metric = metricsManager.getMetric(path);
-		Long inicio = metric.startTimer();
+		var metric = metricsManager.getRota(ctx.getMethod());
+		long inicio = metric.startTimer();
 
 		try {
 			Object result = ctx.proceed();
-			boolean success = true;
-			if (result instanceof Response response) {
-				int status = response.getStatus();
-				success = status >= 200 && status < 400;
+			if (result instanceof Uni<?> uni) {
+				// Endpoint assíncrono: o tempo só termina quando o Uni produzir a resposta
+				return uni.onItemOrFailure().invoke((item, falha) -> metric.stopTimer(inicio,
+						falha == null ? status(item) : status(falha)));
+			}
+			if (result instanceof Response response && response.getEntity() instanceof StreamingOutput corpo) {
+				// Corpo escrito depois do retorno: o tempo só termina quando a escrita acabar
+				return Response.fromResponse(response).entity(medido(corpo, metric, inicio, response.getStatus()))
+						.build();
 			}
-			metric.stopTimer(inicio, success);
+			metric.stopTimer(inicio, status(result));
 			return result;
 		} catch (Exception e) {
-			metric.stopTimer(inicio, false);
+			metric.stopTimer(inicio, status(e));
 			throw e;
 		}
 	}
+
+	// Falha no meio da escrita conta como 500, mesmo com o status já enviado
+	private static StreamingOutput medido(StreamingOutput corpo, RotaMetricas metric, long inicio, int status) {
+		return out -> {
+			boolean concluido = false;
+			try {
+				corpo.write(out);
+				concluido = true;
+			} finally {
+				metric.stopTimer(inicio, concluido ? status : 500);
+			}
+		};
+	}
+
+	private static int status(Object result) {
+		if (result instanceof Response response) {
+			return response.getStatus();
+		}
+		return result == null ? 204 : 200;
+	}
+
+	private static int status(Throwable falha) {
+		if (falha instanceof WebApplicationException wae && wae.getResponse() != null) {
+			return wae.getResponse().getStatus();
+		}
+		return 500;
+	}
 }
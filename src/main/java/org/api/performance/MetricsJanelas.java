@@ -0,0 +1,142 @@
+package org.api.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.api.dto.MetricsJanela;
+
+/**
+ * Métricas por minuto em um anel de {@link #SLOTS} posições, para as janelas de
+ * 1, 5 e 15 minutos.
+ *
+ * Cada posição guarda o minuto a que pertence. O primeiro registro de um
+ * minuto novo troca o minuto da posição com CAS e zera os contadores; quem
+ * perde o CAS só registra. Registros que cruzam essa troca podem se perder ou
+ * cair no minuto novo, o que não muda a leitura de uma janela de minutos.
+ *
+ * A leitura soma as posições cujo minuto está dentro da janela, sem
+ * interromper quem registra.
+ */
+class MetricsJanelas {
+
+	static final int[] JANELAS = { 1, 5, 15 };
+
+	// Maior janela + o minuto corrente, arredondado para potência de 2
+	private static final int SLOTS = 16;
+	private static final long NANOS_MINUTO = TimeUnit.MINUTES.toNanos(1);
+	private static final long ORIGEM = System.nanoTime();
+
+	private final Slot[] slots = new Slot[SLOTS];
+
+	MetricsJanelas() {
+		for (int i = 0; i < SLOTS; i++) {
+			slots[i] = new Slot();
+		}
+	}
+
+	static long minuto(long nanoTime) {
+		return (nanoTime - ORIGEM) / NANOS_MINUTO;
+	}
+
+	/**
+	 * @param agora nanoTime do fim da medição
+	 */
+	void registrar(long agora, long duracaoMicros, boolean sucesso) {
+		long minuto = minuto(agora);
+		Slot slot = slots[(int) (minuto & (SLOTS - 1))];
+		long atual = slot.minuto.get();
+		if (atual != minuto) {
+			if (atual > minuto) {
+				// Thread parada por mais de uma volta do anel; o minuto já foi descartado
+				return;
+			}
+			if (slot.minuto.compareAndSet(atual, minuto)) {
+				slot.zerar();
+			}
+		}
+		slot.registrar(duracaoMicros, sucesso);
+	}
+
+	List<MetricsJanela> snapshot() {
+		return snapshot(minuto(System.nanoTime()));
+	}
+
+	List<MetricsJanela> snapshot(long agora) {
+		List<MetricsJanela> janelas = new ArrayList<>(JANELAS.length);
+		for (int minutos : JANELAS) {
+			janelas.add(janela(agora, minutos));
+		}
+		return janelas;
+	}
+
+	private MetricsJanela janela(long agora, int minutos) {
+		long total = 0;
+		long sucesso = 0;
+		long soma = 0;
+		long max = 0;
+		long[] contagens = new long[PercentilHistogram.BUCKETS];
+		for (Slot slot : slots) {
+			long minuto = slot.minuto.get();
+			if (minuto < agora - minutos || minuto > agora) {
+				continue;
+			}
+			total += slot.total.sum();
+			sucesso += slot.sucessos.sum();
+			soma += slot.tempoTotalMicros.sum();
+			max = Math.max(max, slot.tempoMaximoMicros.get());
+			slot.histograma.acumularEm(contagens);
+		}
+		if (total == 0) {
+			return new MetricsJanela(minutos, 0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+		}
+		double percentualSucesso = Math.round((sucesso * 100.0) / total * 100.0) / 100.0;
+		return new MetricsJanela(
+				minutos,
+				total,
+				percentualSucesso,
+				MetricsCalculator.millis(soma / total),
+				MetricsCalculator.millis(max),
+				MetricsCalculator.percentil(contagens, 50.0, max),
+				MetricsCalculator.percentil(contagens, 90.0, max),
+				MetricsCalculator.percentil(contagens, 95.0, max),
+				MetricsCalculator.percentil(contagens, 99.0, max),
+				MetricsCalculator.percentil(contagens, 99.9, max));
+	}
+
+	private static final class Slot {
+
+		final AtomicLong minuto = new AtomicLong(-1);
+		final LongAdder total = new LongAdder();
+		final LongAdder sucessos = new LongAdder();
+		final LongAdder tempoTotalMicros = new LongAdder();
+		final AtomicLong tempoMaximoMicros = new AtomicLong();
+		// Uma faixa só: são 16 histogramas por endpoint
+		final PercentilHistogram histograma = new PercentilHistogram(1);
+
+		void registrar(long duracaoMicros, boolean sucesso) {
+			total.increment();
+			tempoTotalMicros.add(duracaoMicros);
+			if (sucesso) {
+				sucessos.increment();
+			}
+			long prev;
+			do {
+				prev = tempoMaximoMicros.get();
+				if (duracaoMicros <= prev)
+					break;
+			} while (!tempoMaximoMicros.compareAndSet(prev, duracaoMicros));
+			histograma.registrar(duracaoMicros);
+		}
+
+		void zerar() {
+			total.reset();
+			sucessos.reset();
+			tempoTotalMicros.reset();
+			tempoMaximoMicros.set(0);
+			histograma.zerar();
+		}
+	}
+}
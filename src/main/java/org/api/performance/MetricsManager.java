@@ -1,5 +1,8 @@
 package org.api.performance;
 
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -10,36 +13,56 @@ import org.api.dto.MetricsSnapshot;
 import jakarta.enterprise.context.ApplicationScoped;
 
 /**
- * Gerencia instâncias de MetricsCalculator, garantindo uma única instância por
- * endpoint.
+ * Gerencia as métricas dos endpoints, garantindo uma única instância de
+ * {@link RotaMetricas} por método de resource.
  */
 @ApplicationScoped
 public class MetricsManager {
 
-	private final Map<String, MetricsCalculator> metricsMap = new ConcurrentHashMap<>();
+	private final Map<Method, RotaMetricas> rotas = new ConcurrentHashMap<>();
 
 	/**
-	 * Retorna a instância de MetricsCalculator para o endpoint especificado.
-	 * Se não existir, cria uma nova.
+	 * Retorna as métricas do método de resource, resolvendo método HTTP e rota
+	 * na primeira chamada.
 	 *
-	 * @param endpoint Nome do endpoint (ex: "/api/endpoint")
-	 * @return Instância de MetricsCalculator
+	 * @param method Método do resource anotado com @GET, @POST...
+	 * @return Instância de RotaMetricas
 	 */
-	public MetricsCalculator getMetric(String endpoint) {
-		return metricsMap.computeIfAbsent(endpoint, key -> {
-			return new MetricsCalculator(endpoint);
-		});
+	public RotaMetricas getRota(Method method) {
+		RotaMetricas rota = rotas.get(method);
+		if (rota == null) {
+			rota = rotas.computeIfAbsent(method, RotaMetricas::of);
+		}
+		return rota;
+	}
+
+	Collection<RotaMetricas> rotas() {
+		return rotas.values();
 	}
 
 	/**
-	 * Retorna uma lista de snapshots de métricas para todos os endpoints
-	 * registrados.
-	 *
-	 * @return Lista de MetricsCalculator
+	 * Retorna os snapshots de todas as séries registradas.
 	 */
 	public List<MetricsSnapshot> getAllMetricsSnapshots() {
-		return metricsMap.values().stream()
-				.map(MetricsCalculator::snapshot)
+		return getAllMetricsSnapshots(null, null);
+	}
+
+	/**
+	 * Retorna os snapshots das séries, filtrando por método HTTP e rota quando
+	 * informados (null ou vazio não filtra).
+	 *
+	 * @param metodo Método HTTP (ex: "GET"), sem diferenciar maiúsculas
+	 * @param rota   Template da rota (ex: "/simulacoes/all")
+	 * @return Lista de snapshots ordenada por rota, método e classe de status
+	 */
+	public List<MetricsSnapshot> getAllMetricsSnapshots(String metodo, String rota) {
+		return rotas.values().stream()
+				.filter(r -> metodo == null || metodo.isBlank() || r.metodo().equalsIgnoreCase(metodo))
+				.filter(r -> rota == null || rota.isBlank() || r.rota().equals(rota))
+				.flatMap(r -> r.snapshots().stream())
+				.sorted(Comparator.comparing(MetricsSnapshot::rota)
+						.thenComparing(MetricsSnapshot::metodo)
+						.thenComparing(MetricsSnapshot::classeStatus))
 				.collect(Collectors.toList());
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package org.api.performance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffer de texto para a exposição OpenMetrics. Escreve números direto em
+ * bytes ASCII, sem criar Strings, e é reaproveitado entre as coletas.
+ */
+final class OpenMetricsWriter {
+
+	private byte[] buf;
+	private int pos;
+
+	OpenMetricsWriter(int capacidade) {
+		this.buf = new byte[capacidade];
+	}
+
+	void reset() {
+		pos = 0;
+	}
+
+	/** Texto fixo, só ASCII (nomes e metadados das métricas) */
+	OpenMetricsWriter ascii(String texto) {
+		garantir(texto.length());
+		for (int i = 0; i < texto.length(); i++) {
+			buf[pos++] = (byte) texto.charAt(i);
+		}
+		return this;
+	}
+
+	OpenMetricsWriter bytes(byte[] valor) {
+		garantir(valor.length);
+		System.arraycopy(valor, 0, buf, pos, valor.length);
+		pos += valor.length;
+		return this;
+	}
+
+	OpenMetricsWriter u8(char c) {
+		garantir(1);
+		buf[pos++] = (byte) c;
+		return this;
+	}
+
+	OpenMetricsWriter numero(long valor) {
+		garantir(20);
+		if (valor < 0) {
+			buf[pos++] = '-';
+			valor = -valor;
+		}
+		if (valor == 0) {
+			buf[pos++] = '0';
+			return this;
+		}
+		int inicio = pos;
+		while (valor > 0) {
+			buf[pos++] = (byte) ('0' + valor % 10);
+			valor /= 10;
+		}
+		// Os dígitos saíram ao contrário
+		for (int i = inicio, j = pos - 1; i < j; i++, j--) {
+			byte t = buf[i];
+			buf[i] = buf[j];
+			buf[j] = t;
+		}
+		return this;
+	}
+
+	/** Microssegundos como segundos decimais (ex: 1500 -> 0.0015, 1000000 -> 1.0) */
+	OpenMetricsWriter segundos(long micros) {
+		numero(micros / 1_000_000);
+		long fracao = micros % 1_000_000;
+		if (fracao == 0) {
+			return ascii(".0");
+		}
+		garantir(7);
+		buf[pos++] = '.';
+		int casas = 6;
+		while (fracao % 10 == 0) {
+			fracao /= 10;
+			casas--;
+		}
+		int fim = pos + casas;
+		for (int i = fim - 1; i >= pos; i--) {
+			buf[i] = (byte) ('0' + fracao % 10);
+			fracao /= 10;
+		}
+		pos = fim;
+		return this;
+	}
+
+	void writeTo(OutputStream out) throws IOException {
+		out.write(buf, 0, pos);
+	}
+
+	byte[] toByteArray() {
+		return Arrays.copyOf(buf, pos);
+	}
+
+	/** Valor de rótulo com os escapes do formato (\\, \" e \n) */
+	static byte[] rotulo(String valor) {
+		StringBuilder sb = new StringBuilder(valor.length() + 2);
+		for (int i = 0; i < valor.length(); i++) {
+			char c = valor.charAt(i);
+			switch (c) {
+				case '\\' -> sb.append("\\\\");
+				case '"' -> sb.append("\\\"");
+				case '\n' -> sb.append("\\n");
+				default -> sb.append(c);
+			}
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private void garantir(int n) {
+		if (pos + n > buf.length) {
+			buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package org.api.performance;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.api.dto.MetricsSnapshot;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Path;
+
+/**
+ * Séries de métricas de um método de resource: uma por classe de status
+ * (1xx a 5xx), criadas no primeiro uso.
+ *
+ * Método HTTP e rota são resolvidos uma vez a partir das anotações, então o
+ * registro não monta strings nem consulta mapas: só escolhe a posição pela
+ * classe do status. A rota é o template do @Path (ex: /simulacoes/{id}), o
+ * que mantém a quantidade de séries limitada aos métodos existentes.
+ */
+public final class RotaMetricas {
+
+	private static final String[] CLASSES = { "1xx", "2xx", "3xx", "4xx", "5xx" };
+
+	private final String metodo;
+	private final String rota;
+	private final AtomicReferenceArray<MetricsCalculator> porClasse = new AtomicReferenceArray<>(CLASSES.length);
+
+	RotaMetricas(String metodo, String rota) {
+		this.metodo = metodo;
+		this.rota = rota;
+	}
+
+	static RotaMetricas of(Method method) {
+		return new RotaMetricas(metodoHttp(method), rota(method));
+	}
+
+	public String metodo() {
+		return metodo;
+	}
+
+	public String rota() {
+		return rota;
+	}
+
+	public long startTimer() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Finaliza a medição na série da classe do status.
+	 */
+	public void stopTimer(long startTime, int status) {
+		calculator(status).stopTimer(startTime, status >= 200 && status < 400);
+	}
+
+	private MetricsCalculator calculator(int status) {
+		int classe = Math.min(Math.max(status / 100, 1), 5) - 1;
+		MetricsCalculator calculator = porClasse.get(classe);
+		if (calculator == null) {
+			porClasse.compareAndSet(classe, null, new MetricsCalculator(metodo, rota, CLASSES[classe]));
+			calculator = porClasse.get(classe);
+		}
+		return calculator;
+	}
+
+	/** Série da classe de status (0 = 1xx ... 4 = 5xx), ou null se ainda não usada */
+	MetricsCalculator serie(int classe) {
+		return porClasse.get(classe);
+	}
+
+	static int classes() {
+		return CLASSES.length;
+	}
+
+	List<MetricsSnapshot> snapshots() {
+		List<MetricsSnapshot> snapshots = new ArrayList<>(2);
+		for (int i = 0; i < CLASSES.length; i++) {
+			MetricsCalculator calculator = porClasse.get(i);
+			if (calculator != null) {
+				snapshots.add(calculator.snapshot());
+			}
+		}
+		return snapshots;
+	}
+
+	private static String metodoHttp(Method method) {
+		for (Annotation a : method.getAnnotations()) {
+			HttpMethod http = a.annotationType().getAnnotation(HttpMethod.class);
+			if (http != null) {
+				return http.value();
+			}
+		}
+		return "?";
+	}
+
+	private static String rota(Method method) {
+		StringBuilder sb = new StringBuilder();
+		Path raiz = method.getDeclaringClass().getAnnotation(Path.class);
+		if (raiz != null) {
+			juntar(sb, raiz.value());
+		}
+		Path sub = method.getAnnotation(Path.class);
+		if (sub != null) {
+			juntar(sb, sub.value());
+		}
+		return sb.length() == 0 ? "/" : sb.toString();
+	}
+
+	private static void juntar(StringBuilder sb, String trecho) {
+		for (String parte : trecho.split("/")) {
+			if (!parte.isEmpty()) {
+				sb.append('/').append(parte);
+			}
+		}
+	}
+}
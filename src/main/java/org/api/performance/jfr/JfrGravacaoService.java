@@ -0,0 +1,134 @@
+package org.api.performance.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Controla uma gravação do JFR com os eventos da simulação e do worker
+ * ({@link SimulacaoEtapaEvent}, {@link WorkerEtapaEvent}) mais a configuração
+ * "profile" do JDK.
+ *
+ * Há no máximo uma gravação por vez. O dump vai para um arquivo em
+ * jfr.diretorio, que pode ser aberto no JDK Mission Control ou lido com
+ * {@code jfr print --events org.api.SimulacaoEtapa}.
+ */
+@ApplicationScoped
+public class JfrGravacaoService {
+
+	private static final DateTimeFormatter NOME_ARQUIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+	@ConfigProperty(name = "jfr.diretorio", defaultValue = "/tmp")
+	String diretorio;
+
+	// Limite de uma gravação esquecida ligada
+	@ConfigProperty(name = "jfr.duracao-maxima", defaultValue = "30m")
+	Duration duracaoMaxima;
+
+	private Recording gravacao;
+
+	/**
+	 * Inicia a gravação; se já houver uma em andamento, mantém a atual. Uma
+	 * gravação que terminou pelo limite de duração é descartada.
+	 *
+	 * @param limite duração desejada (null usa jfr.duracao-maxima)
+	 */
+	public synchronized String iniciar(Duration limite) {
+		if (gravacao != null) {
+			if (gravacao.getState() == RecordingState.RUNNING) {
+				return "Gravação já em andamento desde " + gravacao.getStartTime();
+			}
+			gravacao.close();
+			gravacao = null;
+		}
+		Duration duracao = limite == null || limite.compareTo(duracaoMaxima) > 0 ? duracaoMaxima : limite;
+		if (duracao.isNegative() || duracao.isZero()) {
+			throw new IllegalArgumentException("A duração da gravação deve ser positiva.");
+		}
+		Recording nova;
+		try {
+			nova = new Recording(Configuration.getConfiguration("profile"));
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("Configuração 'profile' do JFR indisponível", e);
+		}
+		nova.setName("simulacao");
+		nova.setDuration(duracao);
+		nova.setToDisk(true);
+		nova.enable(SimulacaoEtapaEvent.class).withoutStackTrace();
+		nova.enable(WorkerEtapaEvent.class).withoutStackTrace();
+		nova.start();
+		gravacao = nova;
+		Log.infof("Gravação JFR iniciada (até %s)", duracao);
+		return "Gravação iniciada por até " + duracao;
+	}
+
+	/**
+	 * Grava o conteúdo atual em arquivo, sem parar a gravação.
+	 *
+	 * @return caminho do arquivo
+	 */
+	public synchronized Path despejar() throws IOException {
+		return despejar(ativa());
+	}
+
+	/**
+	 * Para a gravação (se ainda não terminou pelo limite de duração) e grava o
+	 * conteúdo em arquivo.
+	 *
+	 * @return caminho do arquivo
+	 */
+	public synchronized Path parar() throws IOException {
+		Recording atual = ativa();
+		try {
+			if (atual.getState() == RecordingState.RUNNING) {
+				atual.stop();
+			}
+			return despejar(atual);
+		} finally {
+			atual.close();
+			gravacao = null;
+		}
+	}
+
+	private Recording ativa() {
+		if (gravacao != null && gravacao.getState() == RecordingState.CLOSED) {
+			gravacao = null;
+		}
+		if (gravacao == null) {
+			throw new IllegalStateException("Nenhuma gravação JFR em andamento.");
+		}
+		return gravacao;
+	}
+
+	private Path despejar(Recording atual) throws IOException {
+		Path pasta = Path.of(diretorio);
+		Files.createDirectories(pasta);
+		Path arquivo = pasta.resolve("simulacao-" + LocalDateTime.now().format(NOME_ARQUIVO) + ".jfr");
+		atual.dump(arquivo);
+		Log.infof("Gravação JFR salva em %s", arquivo);
+		return arquivo;
+	}
+
+	void onStop(@Observes ShutdownEvent ev) {
+		synchronized (this) {
+			if (gravacao != null) {
+				gravacao.close();
+				gravacao = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package org.api.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do JFR para uma etapa da simulação (busca do produto, SAC, PRICE,
+ * enqueue no Redis).
+ *
+ * Uso: {@code iniciar()} antes da etapa e {@code concluir(...)} depois. Os
+ * campos só são preenchidos se a gravação estiver ativa e a duração passar do
+ * limite configurado; sem gravação, o JIT elimina o objeto e o custo fica em
+ * uma checagem.
+ */
+@Name("org.api.SimulacaoEtapa")
+@Label("Etapa da simulação")
+@Description("Duração de uma etapa de POST /simulacoes")
+@Category({ "Simulacao", "API" })
+@StackTrace(false)
+public class SimulacaoEtapaEvent extends Event {
+
+	public static final String GET_PRODUTO = "getProduto";
+	public static final String CALCULAR_SAC = "calcularSAC";
+	public static final String CALCULAR_PRICE = "calcularPRICE";
+	public static final String ENQUEUE = "enqueue";
+
+	@Label("Etapa")
+	String etapa;
+
+	@Label("Código do produto")
+	int codigoProduto;
+
+	@Label("Prazo")
+	int prazo;
+
+	public static SimulacaoEtapaEvent iniciar() {
+		SimulacaoEtapaEvent evento = new SimulacaoEtapaEvent();
+		evento.begin();
+		return evento;
+	}
+
+	public void concluir(String etapa, Integer codigoProduto, int prazo) {
+		end();
+		if (shouldCommit()) {
+			this.etapa = etapa;
+			this.codigoProduto = codigoProduto == null ? 0 : codigoProduto;
+			this.prazo = prazo;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package org.api.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do JFR para uma etapa do worker da fila (leitura, gravação,
+ * publicação), com o tamanho do lote. Mesmo uso do
+ * {@link SimulacaoEtapaEvent}.
+ */
+@Name("org.api.WorkerEtapa")
+@Label("Etapa do worker da fila")
+@Description("Duração de uma etapa do SimulationQueueWorker")
+@Category({ "Simulacao", "Worker" })
+@StackTrace(false)
+public class WorkerEtapaEvent extends Event {
+
+	public static final String DEQUEUE = "dequeue";
+	public static final String INSERT = "insert";
+	public static final String PUBLISH = "publish";
+
+	@Label("Etapa")
+	String etapa;
+
+	@Label("Tamanho do lote")
+	int tamanhoLote;
+
+	public static WorkerEtapaEvent iniciar() {
+		WorkerEtapaEvent evento = new WorkerEtapaEvent();
+		evento.begin();
+		return evento;
+	}
+
+	public void concluir(String etapa, int tamanhoLote) {
+		end();
+		if (shouldCommit()) {
+			this.etapa = etapa;
+			this.tamanhoLote = tamanhoLote;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package org.api.service;
+
+/**
+ * A simulação não pôde ser registrada na fila do Redis dentro do tempo de
+ * espera configurado.
+ */
+public class FilaIndisponivelException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public FilaIndisponivelException(String message) {
+		super(message);
+	}
+
+	public FilaIndisponivelException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
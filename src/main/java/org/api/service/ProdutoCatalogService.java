@@ -0,0 +1,136 @@
+package org.api.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.api.database.sqlserver.model.Produto;
+import org.api.database.sqlserver.repository.ProdutoRepository;
+import org.api.service.amortizacao.PriceFatorTable;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Mantém o catálogo de produtos do SQL Server em memória.
+ *
+ * O catálogo é carregado na inicialização e recarregado periodicamente (ou sob
+ * demanda via {@link #recarregar()}); cada recarga monta um novo
+ * {@link ProdutoIndex}, com as tabelas de fatores PRICE, e o troca
+ * atomicamente, então as buscas nunca bloqueiam.
+ */
+@ApplicationScoped
+public class ProdutoCatalogService {
+
+	@ConfigProperty(name = "produto.catalogo.intervalo-recarga", defaultValue = "5m")
+	Duration intervaloRecarga;
+
+	@Inject
+	ProdutoRepository produtoRepository;
+
+	private final AtomicReference<ProdutoIndex> index = new AtomicReference<>(ProdutoIndex.VAZIO);
+	// Nome de todo produto já visto, inclusive os que saíram do catálogo (usado pelo codec da fila)
+	private final Map<Integer, String> nomesConhecidos = new ConcurrentHashMap<>();
+	private ScheduledExecutorService scheduler;
+
+	public void onStart(@Observes StartupEvent ev) {
+		try {
+			recarregar();
+		} catch (Exception e) {
+			Log.error("Falha carregando o catálogo de produtos; usando consulta ao banco até a próxima recarga", e);
+		}
+		if (!intervaloRecarga.isZero()) {
+			long intervalo = intervaloRecarga.toMillis();
+			scheduler = Executors.newSingleThreadScheduledExecutor();
+			scheduler.scheduleWithFixedDelay(this::recarregarAgendado, intervalo, intervalo, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void recarregarAgendado() {
+		try {
+			recarregar();
+		} catch (Exception e) {
+			Log.error("Falha recarregando o catálogo de produtos; mantendo a versão anterior", e);
+		}
+	}
+
+	/**
+	 * Lê todo o catálogo do banco e troca o índice em uso.
+	 */
+	@Transactional
+	public ProdutoIndex recarregar() {
+		List<Produto> produtos = produtoRepository.listAll();
+		ProdutoIndex novo = new ProdutoIndex(produtos, index.get());
+		produtos.forEach(this::conhecer);
+		index.set(novo);
+		Log.infof("Catálogo de produtos carregado: %d produto(s)", produtos.size());
+		return novo;
+	}
+
+	/**
+	 * Busca o produto que atende o valor e o prazo. Enquanto o catálogo não tiver
+	 * sido carregado, consulta o banco diretamente.
+	 */
+	public Produto buscar(BigDecimal valor, int prazo) {
+		ProdutoIndex atual = index.get();
+		if (!atual.isEmpty()) {
+			return atual.buscar(valor, prazo);
+		}
+		return buscarNoBanco(valor, prazo);
+	}
+
+	/**
+	 * Tabela de fatores PRICE do produto. Se o produto não veio do catálogo atual
+	 * (ex: consulta direta ao banco), devolve uma tabela avulsa.
+	 */
+	public PriceFatorTable fatoresPrice(Produto produto) {
+		PriceFatorTable tabela = index.get().fatoresPrice(produto.codigo);
+		if (tabela != null && tabela.atende(produto)) {
+			return tabela;
+		}
+		return PriceFatorTable.of(produto);
+	}
+
+	/**
+	 * Nome do produto pelo código, ou null se o código nunca foi visto.
+	 */
+	public String nomeProduto(int codigo) {
+		return nomesConhecidos.get(codigo);
+	}
+
+	private void conhecer(Produto produto) {
+		nomesConhecidos.put(produto.codigo, produto.nome);
+	}
+
+	public ProdutoIndex index() {
+		return index.get();
+	}
+
+	@Transactional
+	Produto buscarNoBanco(BigDecimal valor, int prazo) {
+		List<Produto> produtos = produtoRepository.filterProducts(valor, prazo);
+		if (produtos.isEmpty()) {
+			return null;
+		}
+		conhecer(produtos.getFirst());
+		return produtos.getFirst();
+	}
+
+	public void onStop(@Observes ShutdownEvent ev) {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+}
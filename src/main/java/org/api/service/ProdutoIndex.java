@@ -0,0 +1,118 @@
+package org.api.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.api.database.sqlserver.model.Produto;
+import org.api.service.amortizacao.PriceFatorTable;
+
+/**
+ * Índice imutável de intervalos sobre o catálogo de produtos.
+ *
+ * Os produtos ficam ordenados por VR_MINIMO; a busca localiza por busca
+ * binária o último produto cujo mínimo atende o valor e percorre os candidatos
+ * para trás, parando assim que nenhum candidato restante pode cobrir o valor
+ * (máximo acumulado de VR_MAXIMO). Limites nulos são tratados como abertos.
+ *
+ * Junto com o índice ficam as tabelas de fatores PRICE de cada produto, que
+ * são reaproveitadas da versão anterior quando taxa e prazos não mudaram.
+ *
+ * Como a instância nunca é alterada depois de criada, pode ser lida por várias
+ * threads sem sincronização.
+ */
+public final class ProdutoIndex {
+
+	public static final ProdutoIndex VAZIO = new ProdutoIndex(List.of(), null);
+
+	private final Produto[] produtos;
+	private final BigDecimal[] valoresMinimos;
+	// Maior VR_MAXIMO entre os produtos [0..i]; null = sem limite
+	private final BigDecimal[] maximoAcumulado;
+	private final Map<Integer, PriceFatorTable> fatoresPrice;
+
+	public ProdutoIndex(List<Produto> catalogo, ProdutoIndex anterior) {
+		this.produtos = catalogo.toArray(new Produto[0]);
+		Arrays.sort(this.produtos, Comparator.comparing((Produto p) -> p.valorMinimo));
+
+		this.valoresMinimos = new BigDecimal[produtos.length];
+		this.maximoAcumulado = new BigDecimal[produtos.length];
+		BigDecimal acumulado = BigDecimal.ZERO;
+		for (int i = 0; i < produtos.length; i++) {
+			valoresMinimos[i] = produtos[i].valorMinimo;
+			if (acumulado != null) {
+				BigDecimal max = produtos[i].valorMaximo;
+				acumulado = (max == null) ? null : acumulado.max(max);
+			}
+			maximoAcumulado[i] = acumulado;
+		}
+
+		Map<Integer, PriceFatorTable> fatores = new HashMap<>();
+		for (Produto p : produtos) {
+			PriceFatorTable tabela = anterior == null ? null : anterior.fatoresPrice(p.codigo);
+			fatores.put(p.codigo, tabela != null && tabela.atende(p) ? tabela : PriceFatorTable.of(p));
+		}
+		this.fatoresPrice = Map.copyOf(fatores);
+	}
+
+	/**
+	 * Retorna o produto que atende o valor e o prazo, ou null se nenhum atender.
+	 * Havendo mais de um, retorna o de menor código (mesma ordem da chave primária
+	 * usada pela consulta no banco).
+	 */
+	public Produto buscar(BigDecimal valor, int prazo) {
+		Produto escolhido = null;
+		for (int i = ultimoComMinimoAte(valor); i >= 0; i--) {
+			BigDecimal max = maximoAcumulado[i];
+			if (max != null && max.compareTo(valor) < 0) {
+				break; // nenhum produto em [0..i] cobre o valor
+			}
+			Produto p = produtos[i];
+			if (atende(p, valor, prazo) && (escolhido == null || p.codigo < escolhido.codigo)) {
+				escolhido = p;
+			}
+		}
+		return escolhido;
+	}
+
+	/**
+	 * Tabela de fatores PRICE do produto, ou null se o código não estiver no
+	 * catálogo.
+	 */
+	public PriceFatorTable fatoresPrice(int codigo) {
+		return fatoresPrice.get(codigo);
+	}
+
+	public List<Produto> produtos() {
+		return List.of(produtos);
+	}
+
+	public boolean isEmpty() {
+		return produtos.length == 0;
+	}
+
+	private int ultimoComMinimoAte(BigDecimal valor) {
+		int lo = 0;
+		int hi = valoresMinimos.length - 1;
+		int resultado = -1;
+		while (lo <= hi) {
+			int meio = (lo + hi) >>> 1;
+			if (valoresMinimos[meio].compareTo(valor) <= 0) {
+				resultado = meio;
+				lo = meio + 1;
+			} else {
+				hi = meio - 1;
+			}
+		}
+		return resultado;
+	}
+
+	private static boolean atende(Produto p, BigDecimal valor, int prazo) {
+		return (p.valorMaximo == null || p.valorMaximo.compareTo(valor) >= 0)
+				&& p.minimoMeses <= prazo
+				&& (p.maximoMeses == null || p.maximoMeses >= prazo);
+	}
+}
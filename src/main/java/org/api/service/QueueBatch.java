@@ -0,0 +1,20 @@
+package org.api.service;
+
+import java.util.List;
+
+import org.api.dto.QueueStruct;
+
+/**
+ * Lote lido da fila. No backend stream, ids são os IDs das entradas que
+ * precisam de XACK depois da gravação e reentrega indica que o lote foi
+ * reivindicado (XAUTOCLAIM) de um consumidor que não confirmou; no backend
+ * list, ids é vazio e o lote já saiu do Redis.
+ */
+public record QueueBatch(List<QueueStruct> itens, List<String> ids, boolean reentrega) {
+
+	public static final QueueBatch VAZIO = new QueueBatch(List.of(), List.of(), false);
+
+	public boolean isEmpty() {
+		return itens.isEmpty() && ids.isEmpty();
+	}
+}
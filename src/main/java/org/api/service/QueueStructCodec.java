@@ -0,0 +1,299 @@
+package org.api.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.api.dto.QueueStruct;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Codec do Redis para {@link QueueStruct}.
+ *
+ * Com queue.codec=binario os itens são gravados em formato binário
+ * versionado; com json, no JSON do Jackson. A leitura aceita os dois formatos
+ * (JSON sempre começa com '{'), então dá para trocar o formato com itens
+ * antigos ainda na fila.
+ *
+ * Formato binário, versão 2:
+ * <pre>
+ * u8      versão (2)
+ * u8      nulos: bit por campo (codigo, nome, taxa, valor, prazo, data, total,
+ *         enfileiradoEm)
+ * u8      flags: bit 0 = nome do produto gravado no item
+ * varlong simulacaoId
+ * varint  codigoProduto
+ * [varint tamanho + UTF-8] nomeProduto, só com a flag
+ * decimal taxaJurosMensal, valorDesejado
+ * varint  prazo
+ * varlong dataReferencia (epoch day, zigzag)
+ * decimal valorTotalParcelas
+ * varlong enfileiradoEm (epoch ms)
+ * </pre>
+ * A versão 1 é igual, sem o enfileiradoEm (e sem o bit 7 dos nulos); itens v1
+ * são lidos com enfileiradoEm nulo. Nós anteriores à versão 2 recusam itens
+ * v2, então a versão gravada vem de queue.codec.versao (padrão 1) e só deve
+ * passar para 2 depois que todos os nós lerem v2.
+ * decimal = u8 escala + varlong zigzag do valor sem escala. Valores que não
+ * cabem no formato (escala fora de um byte, mais de 63 bits) fazem o item ser
+ * gravado em JSON.
+ *
+ * O nome do produto é sempre gravado (flag ligada): é o nome devolvido ao
+ * cliente e o que vai para o SIMULACAO. Itens de versões anteriores podem vir
+ * sem ele; nesses o nome vem do catálogo e, se o catálogo não conhecer o
+ * código, o item é recusado (IllegalArgumentException) em vez de receber um
+ * nome inventado.
+ */
+@ApplicationScoped
+public class QueueStructCodec implements Codec {
+
+	static final byte VERSAO = 2;
+	private static final byte VERSAO_SEM_ENFILEIRADO = 1;
+	private static final byte JSON = '{';
+
+	private static final int NULO_CODIGO = 1;
+	private static final int NULO_NOME = 1 << 1;
+	private static final int NULO_TAXA = 1 << 2;
+	private static final int NULO_VALOR = 1 << 3;
+	private static final int NULO_PRAZO = 1 << 4;
+	private static final int NULO_DATA = 1 << 5;
+	private static final int NULO_TOTAL = 1 << 6;
+	private static final int NULO_ENFILEIRADO = 1 << 7;
+
+	private static final int FLAG_NOME = 1;
+
+	@ConfigProperty(name = "queue.codec", defaultValue = "json")
+	String formato;
+
+	// Versão do formato binário gravada: 1 ou 2 (com enfileiradoEm)
+	@ConfigProperty(name = "queue.codec.versao", defaultValue = "1")
+	int versaoGravada;
+
+	@Inject
+	ObjectMapper mapper;
+
+	@Inject
+	ProdutoCatalogService catalogService;
+
+	@Override
+	public boolean canHandle(Type clazz) {
+		return clazz == QueueStruct.class;
+	}
+
+	@Override
+	public byte[] encode(Object item) {
+		QueueStruct value = (QueueStruct) item;
+		if ("binario".equals(formato)) {
+			byte[] binario = encodeBinario(value);
+			if (binario != null) {
+				return binario;
+			}
+		}
+		try {
+			return mapper.writeValueAsBytes(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public Object decode(byte[] item) {
+		if (item.length > 0 && item[0] == JSON) {
+			try {
+				return mapper.readValue(item, QueueStruct.class);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return decodeBinario(item);
+	}
+
+	// null se algum valor não couber no formato
+	byte[] encodeBinario(QueueStruct v) {
+		int nulos = (v.codigoProduto() == null ? NULO_CODIGO : 0)
+				| (v.nomeProduto() == null ? NULO_NOME : 0)
+				| (v.taxaJurosMensal() == null ? NULO_TAXA : 0)
+				| (v.valorDesejado() == null ? NULO_VALOR : 0)
+				| (v.prazo() == null ? NULO_PRAZO : 0)
+				| (v.dataReferencia() == null ? NULO_DATA : 0)
+				| (v.valorTotalParcelas() == null ? NULO_TOTAL : 0);
+		boolean comEnfileirado = versaoGravada >= VERSAO;
+		if (comEnfileirado && v.enfileiradoEm() == null) {
+			nulos |= NULO_ENFILEIRADO;
+		}
+		boolean nomeNoItem = v.nomeProduto() != null;
+
+		Saida out = new Saida();
+		out.u8(comEnfileirado ? VERSAO : VERSAO_SEM_ENFILEIRADO);
+		out.u8(nulos);
+		out.u8(nomeNoItem ? FLAG_NOME : 0);
+		out.varlong(v.simulacaoId());
+		if (v.codigoProduto() != null) {
+			out.varlong(zigzag(v.codigoProduto()));
+		}
+		if (nomeNoItem) {
+			byte[] nome = v.nomeProduto().getBytes(StandardCharsets.UTF_8);
+			out.varlong(nome.length);
+			out.bytes(nome);
+		}
+		if (!out.decimal(v.taxaJurosMensal()) || !out.decimal(v.valorDesejado())) {
+			return null;
+		}
+		if (v.prazo() != null) {
+			out.varlong(zigzag(v.prazo()));
+		}
+		if (v.dataReferencia() != null) {
+			out.varlong(zigzag(v.dataReferencia().toEpochDay()));
+		}
+		if (!out.decimal(v.valorTotalParcelas())) {
+			return null;
+		}
+		if (comEnfileirado && v.enfileiradoEm() != null) {
+			out.varlong(zigzag(v.enfileiradoEm()));
+		}
+		return out.toByteArray();
+	}
+
+	QueueStruct decodeBinario(byte[] item) {
+		Entrada in = new Entrada(item);
+		int versao = in.u8();
+		if (versao != VERSAO && versao != VERSAO_SEM_ENFILEIRADO) {
+			throw new IllegalArgumentException("Versão de QueueStruct desconhecida: " + versao);
+		}
+		int nulos = in.u8();
+		int flags = in.u8();
+		long simulacaoId = in.varlong();
+		Integer codigo = (nulos & NULO_CODIGO) != 0 ? null : (int) unzigzag(in.varlong());
+		String nome = null;
+		if ((flags & FLAG_NOME) != 0) {
+			int tamanho = (int) in.varlong();
+			nome = new String(in.bytes(tamanho), StandardCharsets.UTF_8);
+		} else if ((nulos & NULO_NOME) == 0) {
+			nome = nomeDoCatalogo(codigo);
+		}
+		BigDecimal taxa = (nulos & NULO_TAXA) != 0 ? null : in.decimal();
+		BigDecimal valor = (nulos & NULO_VALOR) != 0 ? null : in.decimal();
+		Integer prazo = (nulos & NULO_PRAZO) != 0 ? null : (int) unzigzag(in.varlong());
+		LocalDate data = (nulos & NULO_DATA) != 0 ? null : LocalDate.ofEpochDay(unzigzag(in.varlong()));
+		BigDecimal total = (nulos & NULO_TOTAL) != 0 ? null : in.decimal();
+		Long enfileiradoEm = versao == VERSAO_SEM_ENFILEIRADO || (nulos & NULO_ENFILEIRADO) != 0 ? null
+				: unzigzag(in.varlong());
+		return new QueueStruct(simulacaoId, codigo, nome, taxa, valor, prazo, data, total, enfileiradoEm);
+	}
+
+	// Só para itens gravados sem o nome por versões anteriores
+	private String nomeDoCatalogo(Integer codigo) {
+		String nome = codigo == null ? null : catalogService.nomeProduto(codigo);
+		if (nome == null) {
+			throw new IllegalArgumentException("Item da fila sem nome do produto " + codigo
+					+ " e produto desconhecido no catálogo");
+		}
+		return nome;
+	}
+
+	private static long zigzag(long valor) {
+		return (valor << 1) ^ (valor >> 63);
+	}
+
+	private static long unzigzag(long valor) {
+		return (valor >>> 1) ^ -(valor & 1);
+	}
+
+	private static final class Saida {
+
+		private byte[] buf = new byte[48];
+		private int pos;
+
+		void u8(int valor) {
+			garantir(1);
+			buf[pos++] = (byte) valor;
+		}
+
+		void varlong(long valor) {
+			garantir(10);
+			while ((valor & ~0x7FL) != 0) {
+				buf[pos++] = (byte) ((valor & 0x7F) | 0x80);
+				valor >>>= 7;
+			}
+			buf[pos++] = (byte) valor;
+		}
+
+		void bytes(byte[] valor) {
+			garantir(valor.length);
+			System.arraycopy(valor, 0, buf, pos, valor.length);
+			pos += valor.length;
+		}
+
+		// false se o valor não couber no formato
+		boolean decimal(BigDecimal valor) {
+			if (valor == null) {
+				return true;
+			}
+			BigInteger semEscala = valor.unscaledValue();
+			if (semEscala.bitLength() > 63 || valor.scale() < Byte.MIN_VALUE || valor.scale() > Byte.MAX_VALUE) {
+				return false;
+			}
+			u8(valor.scale());
+			varlong(zigzag(semEscala.longValue()));
+			return true;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buf, pos);
+		}
+
+		private void garantir(int n) {
+			if (pos + n > buf.length) {
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+			}
+		}
+	}
+
+	private static final class Entrada {
+
+		private final byte[] buf;
+		private int pos;
+
+		Entrada(byte[] buf) {
+			this.buf = buf;
+		}
+
+		int u8() {
+			return buf[pos++] & 0xFF;
+		}
+
+		long varlong() {
+			long valor = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				byte b = buf[pos++];
+				valor |= (long) (b & 0x7F) << shift;
+				if (b >= 0) {
+					return valor;
+				}
+			}
+			throw new IllegalArgumentException("varlong inválido");
+		}
+
+		byte[] bytes(int n) {
+			byte[] valor = Arrays.copyOfRange(buf, pos, pos + n);
+			pos += n;
+			return valor;
+		}
+
+		BigDecimal decimal() {
+			int escala = (byte) u8();
+			return BigDecimal.valueOf(unzigzag(varlong()), escala);
+		}
+	}
+}
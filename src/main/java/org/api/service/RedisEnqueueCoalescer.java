@@ -0,0 +1,207 @@
+package org.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.api.dto.QueueStruct;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Agrupa os enqueues concorrentes em um único RPUSH (group commit).
+ *
+ * Cada chamada entra em uma fila local; as threads de envio juntam o que
+ * chegar durante a janela configurada (ou até o máximo de itens) e mandam tudo
+ * em um RPUSH com vários valores. Com mais de uma thread de envio, um lote pode
+ * ser montado enquanto o anterior ainda aguarda o Redis.
+ *
+ * Quem chama só é liberado depois que o Redis confirmou o lote do seu item; se
+ * isso não acontecer dentro da espera máxima, recebe
+ * {@link FilaIndisponivelException}.
+ */
+@ApplicationScoped
+public class RedisEnqueueCoalescer {
+
+	@ConfigProperty(name = "queue.enqueue.janela", defaultValue = "2ms")
+	Duration janela;
+
+	@ConfigProperty(name = "queue.enqueue.max-itens", defaultValue = "256")
+	int maxItens;
+
+	@ConfigProperty(name = "queue.enqueue.threads", defaultValue = "2")
+	int threads;
+
+	@ConfigProperty(name = "queue.enqueue.capacidade", defaultValue = "10000")
+	int capacidade;
+
+	@ConfigProperty(name = "queue.enqueue.espera-maxima", defaultValue = "2s")
+	Duration esperaMaxima;
+
+	@Inject
+	RedisQueueService redisQueueService;
+
+	private BlockingQueue<Pendente> pendentes;
+	private ExecutorService executor;
+	private volatile boolean running;
+
+	public void onStart(@Observes StartupEvent ev) {
+		pendentes = new ArrayBlockingQueue<>(capacidade);
+		running = true;
+		executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			executor.submit(this::loop);
+		}
+	}
+
+	/**
+	 * Coloca o item no próximo lote e aguarda a confirmação do Redis.
+	 */
+	public void enqueue(QueueStruct value) {
+		try {
+			enqueueAsync(value).join();
+		} catch (CompletionException e) {
+			throw indisponivel(e);
+		}
+	}
+
+	/**
+	 * Coloca o item no próximo lote. O future é concluído quando o RPUSH do lote
+	 * for confirmado, ou com {@link FilaIndisponivelException} se o lote falhar
+	 * ou a espera máxima passar.
+	 */
+	public CompletableFuture<Void> enqueueAsync(QueueStruct value) {
+		Pendente pendente = new Pendente(value, new CompletableFuture<>(), System.nanoTime() + esperaMaxima.toNanos());
+		if (!running || !pendentes.offer(pendente)) {
+			return CompletableFuture.failedFuture(
+					new FilaIndisponivelException("Fila de envio ao Redis cheia ou parada."));
+		}
+		// O onStop pode ter esvaziado a fila entre a checagem e o offer
+		if (!running && pendentes.remove(pendente)) {
+			return CompletableFuture.failedFuture(new FilaIndisponivelException("Aplicação finalizando."));
+		}
+		return pendente.confirmacao()
+				.orTimeout(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS)
+				.exceptionally(e -> {
+					throw indisponivel(e);
+				});
+	}
+
+	private static FilaIndisponivelException indisponivel(Throwable e) {
+		Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+		if (causa instanceof FilaIndisponivelException indisponivel) {
+			return indisponivel;
+		}
+		if (causa instanceof TimeoutException) {
+			return new FilaIndisponivelException("Tempo esgotado aguardando a fila de simulações.", causa);
+		}
+		return new FilaIndisponivelException("Falha registrando a simulação na fila.", causa);
+	}
+
+	private void loop() {
+		List<Pendente> lote = new ArrayList<>(maxItens);
+		List<QueueStruct> valores = new ArrayList<>(maxItens);
+		while (running) {
+			try {
+				Pendente primeiro = pendentes.poll(100, TimeUnit.MILLISECONDS);
+				if (primeiro == null) {
+					continue;
+				}
+				lote.add(primeiro);
+				juntar(lote);
+				enviar(lote, valores);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} finally {
+				lote.clear();
+				valores.clear();
+			}
+		}
+		descartarPendentes();
+	}
+
+	// O que sobrou na fila local não será enviado
+	private void descartarPendentes() {
+		Pendente restante;
+		while ((restante = pendentes.poll()) != null) {
+			restante.confirmacao().completeExceptionally(new FilaIndisponivelException("Aplicação finalizando."));
+		}
+	}
+
+	// Junta itens até fechar a janela (contada a partir do primeiro) ou atingir o máximo
+	private void juntar(List<Pendente> lote) throws InterruptedException {
+		pendentes.drainTo(lote, maxItens - lote.size());
+		long limite = System.nanoTime() + janela.toNanos();
+		while (lote.size() < maxItens) {
+			long restante = limite - System.nanoTime();
+			if (restante <= 0) {
+				break;
+			}
+			Pendente proximo = pendentes.poll(restante, TimeUnit.NANOSECONDS);
+			if (proximo == null) {
+				break;
+			}
+			lote.add(proximo);
+			pendentes.drainTo(lote, maxItens - lote.size());
+		}
+	}
+
+	private void enviar(List<Pendente> lote, List<QueueStruct> valores) {
+		// Quem já recebeu o erro de espera esgotada não pode virar uma simulação gravada
+		lote.removeIf(p -> p.confirmacao().isDone());
+		if (lote.isEmpty()) {
+			return;
+		}
+		// O envio não espera além do prazo do item mais antigo do lote
+		long limite = Long.MAX_VALUE;
+		for (Pendente p : lote) {
+			valores.add(p.valor());
+			limite = Math.min(limite, p.limite());
+		}
+		try {
+			redisQueueService.enqueueAll(valores, Duration.ofNanos(Math.max(1, limite - System.nanoTime())));
+			for (Pendente p : lote) {
+				p.confirmacao().complete(null);
+			}
+		} catch (Exception e) {
+			Log.errorf(e, "Falha enviando lote de %d simulação(ões) ao Redis", lote.size());
+			for (Pendente p : lote) {
+				p.confirmacao().completeExceptionally(e);
+			}
+		}
+	}
+
+	public void onStop(@Observes ShutdownEvent ev) {
+		running = false;
+		if (executor != null) {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (pendentes != null) {
+			descartarPendentes();
+		}
+	}
+
+	// limite: System.nanoTime() em que quem chamou deixa de esperar
+	private record Pendente(QueueStruct valor, CompletableFuture<Void> confirmacao, long limite) {
+	}
+}
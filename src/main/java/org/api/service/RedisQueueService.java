@@ -1,49 +1,155 @@
 package org.api.service;
 
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.api.dto.QueueStruct;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.list.KeyValue;
 import io.quarkus.redis.datasource.list.ListCommands;
 import io.quarkus.redis.datasource.list.Position;
+import io.quarkus.redis.datasource.list.ReactiveListCommands;
+import io.quarkus.redis.datasource.stream.ClaimedMessages;
+import io.quarkus.redis.datasource.stream.StreamCommands;
+import io.quarkus.redis.datasource.stream.StreamMessage;
+import io.quarkus.redis.datasource.stream.XGroupCreateArgs;
+import io.quarkus.redis.datasource.stream.XReadGroupArgs;
+import io.quarkus.redis.datasource.transactions.ReactiveTransactionalStreamCommands;
+import io.quarkus.redis.datasource.transactions.TransactionResult;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 
+/**
+ * Fila de simulações no Redis, com dois backends (queue.backend):
+ * <ul>
+ * <li>list: lista com RPUSH/BLMPOP. O pop é destrutivo; se a gravação falhar,
+ * o lote se perde.</li>
+ * <li>stream: Redis Stream com consumer group. Cada simulação é uma entrada
+ * (XADD); os workers de todos os nós leem pelo mesmo grupo (XREADGROUP) e
+ * confirmam (XACK + XDEL) só depois de gravar. Entradas sem confirmação há
+ * mais de queue.stream.reentrega-apos são reivindicadas por outro consumidor
+ * (XAUTOCLAIM) e entregues de novo. Entradas sem item ou que não podem ser
+ * decodificadas vão para o stream de mensagens mortas
+ * (simulationStream:mortas) antes de serem confirmadas.</li>
+ * </ul>
+ */
 @ApplicationScoped
 public class RedisQueueService {
 
 	private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(1);
 	private static final String QUEUE_NAME = "simulationQueue";
+	private static final String STREAM_NAME = "simulationStream";
+	private static final String MORTAS_NAME = STREAM_NAME + ":mortas";
+	private static final String CAMPO = "s";
 
+	private final boolean stream;
 	private final ListCommands<String, QueueStruct> commands;
+	private final ReactiveListCommands<String, QueueStruct> reactiveCommands;
+	// Leitura em bytes para decodificar entrada por entrada
+	private final StreamCommands<String, String, byte[]> streamCommands;
+	private final ReactiveRedisDataSource reactiveDs;
+	private final QueueStructCodec codec;
+	private final String grupo;
+	private final String consumidor;
+	private final Duration reentregaApos;
+	// Próxima vez (nanoTime) em que vale procurar entradas abandonadas
+	private final AtomicLong proximaReivindicacao = new AtomicLong(System.nanoTime());
 
-	public RedisQueueService(RedisDataSource ds) {
+	public RedisQueueService(RedisDataSource ds, ReactiveRedisDataSource reactiveDs, QueueStructCodec codec,
+			@ConfigProperty(name = "queue.backend", defaultValue = "list") String backend,
+			@ConfigProperty(name = "queue.stream.grupo", defaultValue = "simulation-workers") String grupo,
+			@ConfigProperty(name = "queue.stream.consumidor", defaultValue = "") String consumidor,
+			@ConfigProperty(name = "queue.stream.reentrega-apos", defaultValue = "1m") Duration reentregaApos) {
 		commands = ds.list(QueueStruct.class);
+		reactiveCommands = reactiveDs.list(QueueStruct.class);
+		streamCommands = ds.stream(String.class, String.class, byte[].class);
+		this.reactiveDs = reactiveDs;
+		this.codec = codec;
+		this.stream = switch (backend) {
+			case "list" -> false;
+			case "stream" -> true;
+			default -> throw new IllegalArgumentException("queue.backend inválido: " + backend);
+		};
+		this.grupo = grupo;
+		this.consumidor = consumidor.isBlank() ? nomeDoNo() : consumidor;
+		this.reentregaApos = reentregaApos;
+		if (stream) {
+			criarGrupo();
+		}
 	}
 
 	/**
 	 * Adiciona um item à fila (no final da fila).
 	 */
 	public void enqueue(QueueStruct value) {
-		commands.rpush(QUEUE_NAME, value);
+		if (stream) {
+			streamCommands.xadd(STREAM_NAME, Map.of(CAMPO, codec.encode(value)));
+		} else {
+			commands.rpush(QUEUE_NAME, value);
+		}
+	}
+
+	public void enqueueAll(List<QueueStruct> values) {
+		enqueueAll(values, DEFAULT_TIMEOUT);
 	}
 
 	/**
-	 * Remove e retorna o primeiro item da fila (FIFO).
+	 * Adiciona vários itens à fila, na ordem da lista, aguardando no máximo o
+	 * limite informado. Ou todos entram ou nenhum: um único RPUSH no backend list;
+	 * no backend stream, um XADD por item dentro de um MULTI/EXEC, enviados sem
+	 * esperar a resposta do anterior.
+	 *
+	 * Se o limite passar, a operação pode ainda assim ser concluída no Redis.
+	 */
+	public void enqueueAll(List<QueueStruct> values, Duration limite) {
+		if (values.isEmpty()) {
+			return;
+		}
+		if (!stream) {
+			reactiveCommands.rpush(QUEUE_NAME, values.toArray(new QueueStruct[0])).await().atMost(limite);
+			return;
+		}
+		TransactionResult resultado = reactiveDs.withTransaction(tx -> {
+			ReactiveTransactionalStreamCommands<String, String, QueueStruct> xadd = tx.stream(String.class,
+					String.class, QueueStruct.class);
+			List<Uni<Void>> envios = new ArrayList<>(values.size());
+			for (QueueStruct value : values) {
+				envios.add(xadd.xadd(STREAM_NAME, Map.of(CAMPO, value)));
+			}
+			return Uni.join().all(envios).andFailFast().replaceWithVoid();
+		}).await().atMost(limite);
+		if (resultado.discarded()) {
+			throw new IllegalStateException("Transação de XADD descartada pelo Redis");
+		}
+	}
+
+	/**
+	 * Remove e retorna o primeiro item da fila (FIFO). Só no backend list.
 	 */
 	public QueueStruct dequeue() {
+		exigirList();
 		return commands.lpop(QUEUE_NAME);
 	}
 
 	/**
 	 * Remove e retorna o primeiro item da fila (FIFO).
 	 * Se a fila estiver vazia, aguarda até que um item esteja disponível ou até que
-	 * o tempo limite seja atingido.
+	 * o tempo limite seja atingido. Só no backend list.
 	 */
 	public QueueStruct dequeue(Duration timeout) {
+		exigirList();
 		try {
 			var item = commands.blpop(timeout, QUEUE_NAME);
 			if (item == null) {
@@ -56,9 +162,16 @@ public class RedisQueueService {
 	}
 
 	/**
-	 * Remove e retorna um lote de itens da fila (FIFO).
+	 * Remove e retorna um lote de itens da fila (FIFO). No backend stream o lote
+	 * já é confirmado na leitura; use {@link #lerLote(int)} e
+	 * {@link #ack(QueueBatch)} para confirmar só depois de processar.
 	 */
 	public List<QueueStruct> dequeueBatch(int batchSize) {
+		if (stream) {
+			QueueBatch lote = lerLote(batchSize);
+			ack(lote);
+			return lote.itens();
+		}
 		try {
 
 			List<KeyValue<String, QueueStruct>> items = commands.blmpop(DEFAULT_TIMEOUT, Position.LEFT, batchSize,
@@ -77,10 +190,151 @@ public class RedisQueueService {
 	}
 
 	/**
-	 * Verifica o tamanho atual da fila.
+	 * Lê um lote para processamento. No backend stream, primeiro procura entradas
+	 * abandonadas por outros consumidores (no máximo uma vez a cada
+	 * queue.stream.reentrega-apos) e depois lê entradas novas do grupo,
+	 * aguardando até o timeout.
+	 */
+	public QueueBatch lerLote(int batchSize) {
+		if (!stream) {
+			List<QueueStruct> itens = dequeueBatch(batchSize);
+			return itens.isEmpty() ? QueueBatch.VAZIO : new QueueBatch(itens, List.of(), false);
+		}
+		QueueBatch reivindicado = reivindicar(batchSize);
+		if (!reivindicado.isEmpty()) {
+			return reivindicado;
+		}
+		List<StreamMessage<String, String, byte[]>> mensagens = streamCommands.xreadgroup(grupo, consumidor,
+				STREAM_NAME, ">", new XReadGroupArgs().count(batchSize).block(DEFAULT_TIMEOUT));
+		return toBatch(mensagens, false);
+	}
+
+	/**
+	 * Confirma um lote lido por {@link #lerLote(int)}. No backend stream as
+	 * entradas são confirmadas e removidas do stream; no list não faz nada.
+	 */
+	public void ack(QueueBatch lote) {
+		if (!stream || lote.ids().isEmpty()) {
+			return;
+		}
+		String[] ids = lote.ids().toArray(new String[0]);
+		streamCommands.xack(STREAM_NAME, grupo, ids);
+		streamCommands.xdel(STREAM_NAME, ids);
+	}
+
+	/**
+	 * Devolve ao início da fila um lote lido por {@link #lerLote(int)} que não
+	 * será processado, na ordem original. No backend stream não faz nada: as
+	 * entradas continuam pendentes e são reivindicadas depois de
+	 * queue.stream.reentrega-apos.
+	 */
+	public void devolver(QueueBatch lote) {
+		if (stream || lote.itens().isEmpty()) {
+			return;
+		}
+		// LPUSH insere um a um no início; invertido, o lote volta na mesma ordem
+		List<QueueStruct> invertido = new ArrayList<>(lote.itens());
+		Collections.reverse(invertido);
+		commands.lpush(QUEUE_NAME, invertido.toArray(new QueueStruct[0]));
+	}
+
+	/**
+	 * Verifica o tamanho atual da fila. No backend stream, conta as entradas ainda
+	 * não confirmadas (pendentes ou não lidas).
 	 */
 	public long size() {
-		return commands.llen(QUEUE_NAME);
+		return stream ? streamCommands.xlen(STREAM_NAME) : commands.llen(QUEUE_NAME);
+	}
+
+	private QueueBatch reivindicar(int batchSize) {
+		long agora = System.nanoTime();
+		long proxima = proximaReivindicacao.get();
+		if (agora - proxima < 0 || !proximaReivindicacao.compareAndSet(proxima, agora + reentregaApos.toNanos())) {
+			return QueueBatch.VAZIO;
+		}
+		ClaimedMessages<String, String, byte[]> claimed = streamCommands.xautoclaim(STREAM_NAME, grupo,
+				consumidor, reentregaApos, "0-0", batchSize);
+		QueueBatch lote = toBatch(claimed.getMessages(), true);
+		if (!lote.isEmpty()) {
+			Log.warnf("%d simulação(ões) sem confirmação reivindicada(s) para reprocessamento", lote.itens().size());
+			// Pode haver mais; tenta de novo na próxima leitura
+			proximaReivindicacao.set(agora);
+		}
+		return lote;
 	}
 
-}
\ No newline at end of file
+	private QueueBatch toBatch(List<StreamMessage<String, String, byte[]>> mensagens, boolean reentrega) {
+		if (mensagens == null || mensagens.isEmpty()) {
+			return QueueBatch.VAZIO;
+		}
+		List<QueueStruct> itens = new ArrayList<>(mensagens.size());
+		List<String> ids = new ArrayList<>(mensagens.size());
+		List<String> mortas = new ArrayList<>();
+		for (StreamMessage<String, String, byte[]> m : mensagens) {
+			QueueStruct item = decodificar(m);
+			if (item != null) {
+				itens.add(item);
+				ids.add(m.id());
+			} else {
+				mortas.add(m.id());
+			}
+		}
+		if (!mortas.isEmpty()) {
+			String[] idsMortas = mortas.toArray(new String[0]);
+			streamCommands.xack(STREAM_NAME, grupo, idsMortas);
+			streamCommands.xdel(STREAM_NAME, idsMortas);
+		}
+		return itens.isEmpty() && ids.isEmpty() ? QueueBatch.VAZIO : new QueueBatch(itens, ids, reentrega);
+	}
+
+	// null se a entrada foi para o stream de mensagens mortas
+	private QueueStruct decodificar(StreamMessage<String, String, byte[]> m) {
+		byte[] valor = m.payload().get(CAMPO);
+		String erro;
+		if (valor == null) {
+			erro = "entrada sem o campo " + CAMPO;
+		} else {
+			try {
+				return (QueueStruct) codec.decode(valor);
+			} catch (RuntimeException e) {
+				erro = e.toString();
+			}
+		}
+		Log.errorf("Entrada %s de %s não pôde ser lida (%s); movida para %s", m.id(), STREAM_NAME, erro,
+				MORTAS_NAME);
+		Map<String, byte[]> morta = new HashMap<>();
+		morta.put("id", m.id().getBytes(StandardCharsets.UTF_8));
+		morta.put("erro", erro.getBytes(StandardCharsets.UTF_8));
+		if (valor != null) {
+			morta.put(CAMPO, valor);
+		}
+		streamCommands.xadd(MORTAS_NAME, morta);
+		return null;
+	}
+
+	private void criarGrupo() {
+		try {
+			streamCommands.xgroupCreate(STREAM_NAME, grupo, "0", new XGroupCreateArgs().mkstream());
+			Log.infof("Consumer group %s criado em %s", grupo, STREAM_NAME);
+		} catch (Exception e) {
+			if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+				throw e;
+			}
+		}
+		Log.infof("Fila em Redis Stream: grupo=%s consumidor=%s", grupo, consumidor);
+	}
+
+	private void exigirList() {
+		if (stream) {
+			throw new IllegalStateException("dequeue unitário só existe com queue.backend=list");
+		}
+	}
+
+	private static String nomeDoNo() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (Exception e) {
+			return UUID.randomUUID().toString();
+		}
+	}
+}
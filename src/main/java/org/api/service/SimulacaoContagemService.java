@@ -0,0 +1,71 @@
+package org.api.service;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.api.database.postgres.repository.SimulacaoRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Total de simulações gravadas, recontado em segundo plano a cada
+ * simulacao.contagem.intervalo, para que a listagem não faça um count(*) por
+ * requisição. O valor pode estar atrasado em até um intervalo.
+ */
+@ApplicationScoped
+public class SimulacaoContagemService {
+
+	@ConfigProperty(name = "simulacao.contagem.intervalo", defaultValue = "30s")
+	Duration intervalo;
+
+	@Inject
+	SimulacaoRepository simulacaoRepository;
+
+	// -1 enquanto a primeira contagem não terminou
+	private volatile long total = -1;
+	private ScheduledExecutorService scheduler;
+
+	public void onStart(@Observes StartupEvent ev) {
+		long ms = intervalo.toMillis();
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+		scheduler.scheduleWithFixedDelay(this::recontarAgendado, 0, ms, TimeUnit.MILLISECONDS);
+	}
+
+	private void recontarAgendado() {
+		try {
+			recontar();
+		} catch (Exception e) {
+			Log.error("Falha contando as simulações; mantendo o último total", e);
+		}
+	}
+
+	/**
+	 * Último total conhecido. Se ainda não houve contagem, conta na hora.
+	 */
+	public long total() {
+		long atual = total;
+		return atual >= 0 ? atual : recontar();
+	}
+
+	@Transactional
+	public long recontar() {
+		long contagem = simulacaoRepository.count();
+		total = contagem;
+		return contagem;
+	}
+
+	public void onStop(@Observes ShutdownEvent ev) {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+}
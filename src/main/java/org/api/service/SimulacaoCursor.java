@@ -0,0 +1,40 @@
+package org.api.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da listagem de simulações: versão + último ID_SIMULACAO em
+ * Base64 URL-safe.
+ */
+final class SimulacaoCursor {
+
+	private static final byte VERSAO = 1;
+
+	private SimulacaoCursor() {
+	}
+
+	static String codificar(long ultimoId) {
+		byte[] bytes = ByteBuffer.allocate(Long.BYTES + 1).put(VERSAO).putLong(ultimoId).array();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	/**
+	 * Último ID do cursor; Long.MIN_VALUE para cursor vazio (primeira página).
+	 */
+	static long decodificar(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return Long.MIN_VALUE;
+		}
+		byte[] bytes;
+		try {
+			bytes = Base64.getUrlDecoder().decode(cursor);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Cursor inválido.");
+		}
+		if (bytes.length != Long.BYTES + 1 || bytes[0] != VERSAO) {
+			throw new IllegalArgumentException("Cursor inválido.");
+		}
+		return ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+	}
+}
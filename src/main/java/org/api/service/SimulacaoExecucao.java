@@ -0,0 +1,65 @@
+package org.api.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.api.dto.SimulationRequest;
+import org.api.dto.SimulationResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Define onde POST /simulacoes roda, pela configuração simulacao.execucao:
+ * <ul>
+ * <li>worker: pool de workers do Quarkus (comportamento original);</li>
+ * <li>virtual: uma virtual thread por requisição;</li>
+ * <li>reactive: sem bloquear, na própria thread de I/O, liberando a resposta
+ * quando o Redis confirma o enqueue.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class SimulacaoExecucao {
+
+	@ConfigProperty(name = "simulacao.execucao", defaultValue = "worker")
+	String modo;
+
+	@Inject
+	SimulacaoService simulacaoService;
+
+	// null no modo reactive
+	private Executor executor;
+	private ExecutorService virtualThreads;
+
+	@PostConstruct
+	void init() {
+		executor = switch (modo) {
+			case "worker" -> Infrastructure.getDefaultWorkerPool();
+			case "virtual" -> virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+			case "reactive" -> null;
+			default -> throw new IllegalArgumentException("simulacao.execucao inválido: " + modo);
+		};
+		Log.infof("Execução das simulações: %s", modo);
+	}
+
+	public Uni<SimulationResponse> simular(SimulationRequest req) {
+		if (executor == null) {
+			return simulacaoService.simularReativo(req);
+		}
+		return Uni.createFrom().item(() -> simulacaoService.simular(req)).runSubscriptionOn(executor);
+	}
+
+	@PreDestroy
+	void fechar() {
+		if (virtualThreads != null) {
+			virtualThreads.shutdown();
+		}
+	}
+}
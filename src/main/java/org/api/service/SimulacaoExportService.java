@@ -0,0 +1,173 @@
+package org.api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Exporta as simulações de um período em NDJSON ou CSV.
+ *
+ * A leitura usa um cursor no servidor (autocommit desligado + fetch size), e
+ * cada linha é escrita na saída assim que chega, então a memória não depende
+ * do tamanho do período.
+ */
+@ApplicationScoped
+public class SimulacaoExportService {
+
+	public enum Formato {
+		NDJSON("application/x-ndjson"),
+		CSV("text/csv");
+
+		public final String mediaType;
+
+		Formato(String mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		public static Formato of(String valor) {
+			if (valor == null || valor.isBlank()) {
+				return NDJSON;
+			}
+			return switch (valor.toLowerCase()) {
+				case "ndjson" -> NDJSON;
+				case "csv" -> CSV;
+				default -> throw new IllegalArgumentException("Formato inválido: " + valor + " (use ndjson ou csv).");
+			};
+		}
+	}
+
+	private static final String SQL = "SELECT ID_SIMULACAO, CO_PRODUTO, NO_PRODUTO, PC_TAXA_JUROS, VALOR_DESEJADO, "
+			+ "PRAZO, DATA_REFERENCIA, VALOR_TOTAL_PARCELAS FROM SIMULACAO "
+			+ "WHERE DATA_REFERENCIA BETWEEN ? AND ? ORDER BY DATA_REFERENCIA, ID_SIMULACAO";
+
+	private static final String CABECALHO_CSV = "idSimulacao,codigoProduto,nomeProduto,taxaJuros,valorDesejado,"
+			+ "prazo,dataReferencia,valorTotalParcelas\n";
+
+	@ConfigProperty(name = "simulacao.export.fetch-size", defaultValue = "1000")
+	int fetchSize;
+
+	@ConfigProperty(name = "simulacao.export.dias-maximo", defaultValue = "366")
+	int diasMaximo;
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	@Inject
+	ObjectMapper mapper;
+
+	/**
+	 * Valida o período antes de a resposta começar a ser escrita.
+	 */
+	public void validarPeriodo(LocalDate inicio, LocalDate fim) {
+		if (fim.isBefore(inicio)) {
+			throw new IllegalArgumentException("A data final deve ser igual ou posterior à inicial.");
+		}
+		if (inicio.plusDays(diasMaximo).isBefore(fim)) {
+			throw new IllegalArgumentException("O período deve ter no máximo " + diasMaximo + " dias.");
+		}
+	}
+
+	public void exportar(LocalDate inicio, LocalDate fim, Formato formato, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+		try (Connection conn = dataSource.getConnection()) {
+			// O driver do Postgres só usa cursor com autocommit desligado
+			conn.setAutoCommit(false);
+			try (PreparedStatement ps = conn.prepareStatement(SQL)) {
+				ps.setFetchSize(fetchSize);
+				ps.setDate(1, Date.valueOf(inicio));
+				ps.setDate(2, Date.valueOf(fim));
+				try (ResultSet rs = ps.executeQuery()) {
+					if (formato == Formato.CSV) {
+						csv(rs, writer);
+					} else {
+						ndjson(rs, writer);
+					}
+				}
+			} finally {
+				conn.rollback();
+				conn.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			throw new IOException("Falha lendo as simulações para exportação", e);
+		}
+		writer.flush();
+	}
+
+	private void ndjson(ResultSet rs, Writer writer) throws SQLException, IOException {
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(writer)) {
+			gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			// Uma linha por objeto, sem o espaço que o Jackson põe entre valores raiz
+			gen.setRootValueSeparator(null);
+			while (rs.next()) {
+				gen.writeStartObject();
+				gen.writeNumberField("idSimulacao", rs.getLong(1));
+				gen.writeNumberField("codigoProduto", rs.getInt(2));
+				gen.writeStringField("nomeProduto", rs.getString(3));
+				gen.writeNumberField("taxaJuros", rs.getBigDecimal(4));
+				gen.writeNumberField("valorDesejado", rs.getBigDecimal(5));
+				gen.writeNumberField("prazo", rs.getInt(6));
+				gen.writeStringField("dataReferencia", rs.getDate(7).toLocalDate().toString());
+				gen.writeNumberField("valorTotalParcelas", rs.getBigDecimal(8));
+				gen.writeEndObject();
+				gen.writeRaw('\n');
+			}
+		}
+	}
+
+	private static void csv(ResultSet rs, Writer writer) throws SQLException, IOException {
+		writer.write(CABECALHO_CSV);
+		while (rs.next()) {
+			writer.write(Long.toString(rs.getLong(1)));
+			writer.write(',');
+			writer.write(Integer.toString(rs.getInt(2)));
+			writer.write(',');
+			texto(writer, rs.getString(3));
+			writer.write(',');
+			decimal(writer, rs.getBigDecimal(4));
+			writer.write(',');
+			decimal(writer, rs.getBigDecimal(5));
+			writer.write(',');
+			writer.write(Integer.toString(rs.getInt(6)));
+			writer.write(',');
+			writer.write(rs.getDate(7).toLocalDate().toString());
+			writer.write(',');
+			decimal(writer, rs.getBigDecimal(8));
+			writer.write('\n');
+		}
+	}
+
+	private static void decimal(Writer writer, BigDecimal valor) throws IOException {
+		writer.write(valor.toPlainString());
+	}
+
+	private static void texto(Writer writer, String valor) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < valor.length(); i++) {
+			char c = valor.charAt(i);
+			if (c == '"') {
+				writer.write('"');
+			}
+			writer.write(c);
+		}
+		writer.write('"');
+	}
+}
@@ -0,0 +1,97 @@
+package org.api.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.RedisDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Gerador de IDs de simulação no estilo Snowflake:
+ *
+ * <pre>
+ * 0 | 41 bits: ms desde 2025-01-01 UTC | 10 bits: nó | 12 bits: sequência
+ * </pre>
+ *
+ * Os IDs crescem com o tempo (e são maiores que os do formato antigo
+ * timestamp * 1000 + contador), não repetem entre nós com IDs diferentes e
+ * chegam a 4096 por milissegundo por nó.
+ *
+ * O estado (último ms + sequência) fica em um único AtomicLong atualizado por
+ * CAS, sem lock. Se a sequência do milissegundo esgota ou o relógio volta, o
+ * gerador continua a partir do último ms usado (avançando-o quando preciso),
+ * então os IDs nunca repetem nem diminuem dentro do processo.
+ *
+ * O nó vem de simulacao.id.no; se não configurado, de um INCR no Redis módulo
+ * 1024 (único enquanto menos de 1024 inicializações separarem dois nós vivos).
+ */
+@ApplicationScoped
+public class SimulacaoIdGenerator {
+
+	static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+	static final int BITS_NO = 10;
+	static final int BITS_SEQUENCIA = 12;
+	static final long MAX_NO = (1L << BITS_NO) - 1;
+	static final long MAX_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+	private static final String CHAVE_NO = "simulationIdNode";
+	// Regressões de relógio maiores que isso são registradas em log
+	private static final long REGRESSAO_AVISO_MS = 1000;
+
+	@ConfigProperty(name = "simulacao.id.no", defaultValue = "-1")
+	long noConfigurado;
+
+	@Inject
+	RedisDataSource redis;
+
+	private long no;
+	// (ms desde EPOCH << BITS_SEQUENCIA) | sequência do último ID emitido
+	private final AtomicLong estado = new AtomicLong();
+
+	@PostConstruct
+	void init() {
+		if (noConfigurado >= 0) {
+			if (noConfigurado > MAX_NO) {
+				throw new IllegalArgumentException("simulacao.id.no deve estar entre 0 e " + MAX_NO);
+			}
+			no = noConfigurado;
+		} else {
+			no = Math.floorMod(redis.value(Long.class).incr(CHAVE_NO), MAX_NO + 1);
+		}
+		Log.infof("Gerador de IDs de simulação: nó %d", no);
+	}
+
+	public long next() {
+		while (true) {
+			long atual = estado.get();
+			long ultimoMs = atual >>> BITS_SEQUENCIA;
+			long agora = System.currentTimeMillis() - EPOCH;
+			long novo;
+			if (agora > ultimoMs) {
+				novo = agora << BITS_SEQUENCIA;
+			} else if ((atual & MAX_SEQUENCIA) < MAX_SEQUENCIA) {
+				// Mesmo ms, ou relógio atrasado: segue a sequência do último ms
+				novo = atual + 1;
+			} else {
+				// Sequência esgotada: usa o próximo ms antes de o relógio chegar nele
+				novo = (ultimoMs + 1) << BITS_SEQUENCIA;
+			}
+			if (estado.compareAndSet(atual, novo)) {
+				if (ultimoMs - agora > REGRESSAO_AVISO_MS && (novo & MAX_SEQUENCIA) == 0) {
+					Log.warnf("Relógio %d ms atrás do último ID emitido; IDs seguem a partir do último ms",
+							ultimoMs - agora);
+				}
+				return compor(novo >>> BITS_SEQUENCIA, no, novo & MAX_SEQUENCIA);
+			}
+		}
+	}
+
+	static long compor(long ms, long no, long sequencia) {
+		return (ms << (BITS_NO + BITS_SEQUENCIA)) | (no << BITS_SEQUENCIA) | sequencia;
+	}
+}
@@ -0,0 +1,205 @@
+package org.api.service;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+
+/**
+ * Particionamento mensal do SIMULACAO por DATA_REFERENCIA
+ * (simulacao.particionamento.enabled=true).
+ *
+ * Na inicialização, se o SIMULACAO ainda for uma tabela comum e estiver vazio
+ * (ex: recém-criado pelo Hibernate), ele é recriado como tabela particionada
+ * por faixa, com uma partição padrão para datas sem partição própria. Com
+ * dados, a tabela é mantida como está e só um aviso é registrado; a migração
+ * nesse caso é manual.
+ *
+ * Uma vez por dia garante as partições do mês corrente e dos próximos meses e
+ * remove as que passaram da retenção. Como as consultas por dia filtram por
+ * DATA_REFERENCIA, o Postgres só lê a partição do mês.
+ */
+@ApplicationScoped
+public class SimulacaoParticaoService {
+
+	private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyyMM");
+	private static final Pattern PARTICAO = Pattern.compile("simulacao_p(\\d{6})");
+
+	private static final String CRIAR_PARTICIONADA = """
+			CREATE TABLE SIMULACAO (
+				ID_SIMULACAO bigint NOT NULL,
+				CO_PRODUTO integer NOT NULL,
+				NO_PRODUTO varchar(200) NOT NULL,
+				PC_TAXA_JUROS numeric(10,9) NOT NULL,
+				VALOR_DESEJADO numeric(18,2) NOT NULL,
+				PRAZO integer NOT NULL,
+				DATA_REFERENCIA date NOT NULL,
+				VALOR_TOTAL_PARCELAS numeric(18,2) NOT NULL,
+				PRIMARY KEY (ID_SIMULACAO, DATA_REFERENCIA)
+			) PARTITION BY RANGE (DATA_REFERENCIA)""";
+
+	@ConfigProperty(name = "simulacao.particionamento.enabled", defaultValue = "false")
+	boolean enabled;
+
+	@ConfigProperty(name = "simulacao.particionamento.meses-futuros", defaultValue = "2")
+	int mesesFuturos;
+
+	// 0 mantém todas as partições
+	@ConfigProperty(name = "simulacao.particionamento.retencao-meses", defaultValue = "0")
+	int retencaoMeses;
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	private ScheduledExecutorService scheduler;
+
+	// Antes do worker, que começa a gravar no SIMULACAO na inicialização
+	void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION) StartupEvent ev) {
+		if (!enabled) {
+			return;
+		}
+		try {
+			if (particionar()) {
+				manter();
+			}
+		} catch (SQLException e) {
+			Log.error("Falha preparando o particionamento do SIMULACAO", e);
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+		scheduler.scheduleWithFixedDelay(this::manterAgendado, 1, 1, TimeUnit.DAYS);
+	}
+
+	private void manterAgendado() {
+		try {
+			manter();
+		} catch (Exception e) {
+			Log.error("Falha na manutenção das partições do SIMULACAO", e);
+		}
+	}
+
+	/**
+	 * Converte o SIMULACAO em tabela particionada se ainda não for.
+	 *
+	 * @return true se a tabela está particionada
+	 */
+	boolean particionar() throws SQLException {
+		try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+			conn.setAutoCommit(false);
+			try {
+				String tipo = tipoTabela(st);
+				if ("p".equals(tipo)) {
+					conn.commit();
+					return true;
+				}
+				if (tipo != null) {
+					st.execute("LOCK TABLE SIMULACAO IN ACCESS EXCLUSIVE MODE");
+					try (ResultSet rs = st.executeQuery("SELECT EXISTS (SELECT 1 FROM SIMULACAO)")) {
+						rs.next();
+						if (rs.getBoolean(1)) {
+							conn.rollback();
+							Log.warn("SIMULACAO já tem dados e não é particionada; mantendo a tabela atual");
+							return false;
+						}
+					}
+					st.execute("DROP TABLE SIMULACAO");
+				}
+				st.execute(CRIAR_PARTICIONADA);
+				st.execute("CREATE TABLE SIMULACAO_PADRAO PARTITION OF SIMULACAO DEFAULT");
+				st.execute("CREATE INDEX IX_SIMULACAO_DATA_REFERENCIA ON SIMULACAO (DATA_REFERENCIA)");
+				conn.commit();
+				Log.info("SIMULACAO criada como tabela particionada por DATA_REFERENCIA");
+				return true;
+			} catch (SQLException | RuntimeException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		}
+	}
+
+	/**
+	 * Cria as partições do mês corrente e dos próximos meses e remove as que
+	 * passaram da retenção.
+	 */
+	public void manter() throws SQLException {
+		YearMonth atual = YearMonth.now();
+		try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+			for (int i = 0; i <= mesesFuturos; i++) {
+				criarParticao(st, atual.plusMonths(i));
+			}
+			if (retencaoMeses > 0) {
+				YearMonth limite = atual.minusMonths(retencaoMeses);
+				for (String particao : particoes(st)) {
+					Matcher m = PARTICAO.matcher(particao);
+					if (m.matches() && YearMonth.parse(m.group(1), SUFIXO).isBefore(limite)) {
+						st.execute("DROP TABLE " + particao);
+						Log.infof("Partição %s removida (retenção de %d meses)", particao, retencaoMeses);
+					}
+				}
+			}
+		}
+	}
+
+	private static void criarParticao(Statement st, YearMonth mes) {
+		LocalDate inicio = mes.atDay(1);
+		LocalDate fim = mes.plusMonths(1).atDay(1);
+		String sql = "CREATE TABLE IF NOT EXISTS SIMULACAO_P" + mes.format(SUFIXO)
+				+ " PARTITION OF SIMULACAO FOR VALUES FROM ('" + inicio + "') TO ('" + fim + "')";
+		try {
+			st.execute(sql);
+		} catch (SQLException e) {
+			// Ex: a partição padrão já tem linhas desse mês
+			Log.errorf(e, "Não foi possível criar a partição de %s", mes);
+		}
+	}
+
+	// 'p' particionada, 'r' comum, null se não existe
+	private static String tipoTabela(Statement st) throws SQLException {
+		try (ResultSet rs = st.executeQuery(
+				"SELECT c.relkind FROM pg_class c WHERE c.relname = 'simulacao' AND pg_table_is_visible(c.oid)")) {
+			return rs.next() ? rs.getString(1) : null;
+		}
+	}
+
+	private static List<String> particoes(Statement st) throws SQLException {
+		List<String> nomes = new ArrayList<>();
+		try (ResultSet rs = st.executeQuery("SELECT c.relname FROM pg_inherits i "
+				+ "JOIN pg_class c ON c.oid = i.inhrelid "
+				+ "JOIN pg_class p ON p.oid = i.inhparent "
+				+ "WHERE p.relname = 'simulacao' AND pg_table_is_visible(p.oid)")) {
+			while (rs.next()) {
+				nomes.add(rs.getString(1));
+			}
+		}
+		return nomes;
+	}
+
+	void onStop(@Observes ShutdownEvent ev) {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+}
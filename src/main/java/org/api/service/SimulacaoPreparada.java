@@ -0,0 +1,26 @@
+package org.api.service;
+
+import java.math.BigDecimal;
+
+import org.api.database.sqlserver.model.Produto;
+import org.api.service.amortizacao.AmortizacaoTotais;
+
+/**
+ * Simulação com produto, PMT e totais já resolvidos, pronta para ter as
+ * parcelas geradas sob demanda (ex: escrita em streaming na resposta).
+ * Os totais SAC e PRICE estão em centavos.
+ */
+public record SimulacaoPreparada(
+		long simulacaoId,
+		Produto produto,
+		BigDecimal valorDesejado,
+		int prazo,
+		BigDecimal pmt,
+		long totalSac,
+		long totalPrice) {
+
+	// pegando a media por falta de esclarecimento
+	public BigDecimal valorTotalParcelas() {
+		return AmortizacaoTotais.valorTotalParcelas(totalSac, totalPrice);
+	}
+}
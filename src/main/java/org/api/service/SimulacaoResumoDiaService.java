@@ -0,0 +1,75 @@
+package org.api.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import org.api.database.postgres.repository.SimulacaoResumoDiaRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+
+/**
+ * Reconstrói o SIMULACAO_RESUMO_DIA do dia corrente na inicialização
+ * (simulacao.resumo.reconstruir-na-inicializacao=true).
+ *
+ * O relatório do dia só calcula a partir do SIMULACAO quando o dia não tem
+ * nenhum resumo. No dia em que o resumo entra em produção, as simulações
+ * gravadas antes do deploy (ou por nós ainda na versão anterior) não estão nos
+ * totais; cada nó, ao subir, recalcula o dia a partir do SIMULACAO. Depois que
+ * o último nó sobe, o resumo do dia fica completo.
+ */
+@ApplicationScoped
+public class SimulacaoResumoDiaService {
+
+	@ConfigProperty(name = "simulacao.resumo.reconstruir-na-inicializacao", defaultValue = "true")
+	boolean reconstruirNaInicializacao;
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	@Inject
+	SimulacaoResumoDiaRepository resumoDiaRepository;
+
+	// Depois do particionamento e antes do worker
+	void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION + 100) StartupEvent ev) {
+		if (!reconstruirNaInicializacao) {
+			return;
+		}
+		LocalDate hoje = LocalDate.now();
+		try {
+			int produtos = reconstruir(hoje);
+			Log.infof("Resumo de %s reconstruído a partir do SIMULACAO: %d produto(s)", hoje, produtos);
+		} catch (SQLException e) {
+			Log.errorf(e, "Falha reconstruindo o resumo de %s; o relatório do dia pode ficar incompleto", hoje);
+		}
+	}
+
+	/**
+	 * Recalcula os totais do dia em uma transação própria.
+	 *
+	 * @return quantidade de produtos com resumo no dia
+	 */
+	public int reconstruir(LocalDate dia) throws SQLException {
+		try (Connection conn = dataSource.getConnection()) {
+			conn.setAutoCommit(false);
+			try {
+				int produtos = resumoDiaRepository.reconstruir(conn, dia);
+				conn.commit();
+				return produtos;
+			} catch (SQLException | RuntimeException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		}
+	}
+}
@@ -7,142 +7,299 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.api.database.postgres.model.Simulacao;
+import org.api.database.postgres.model.SimulacaoResumoDia;
 import org.api.database.postgres.repository.SimulacaoRepository;
+import org.api.database.postgres.repository.SimulacaoResumoDiaRepository;
 import org.api.database.sqlserver.model.Produto;
-import org.api.database.sqlserver.repository.ProdutoRepository;
 import org.api.dto.ParcelaDTO;
 import org.api.dto.QueueStruct;
 import org.api.dto.ResponseAll;
+import org.api.dto.ResponseAllCursor;
 import org.api.dto.ResponseDia;
+import org.api.dto.ResponseLote;
+import org.api.dto.ResponseResumo;
 import org.api.dto.ResultadoDTO;
 import org.api.dto.SimulationRequest;
 import org.api.dto.SimulationResponse;
+import org.api.performance.jfr.SimulacaoEtapaEvent;
+import org.api.service.amortizacao.AmortizacaoEngine;
+import org.api.service.amortizacao.AmortizacaoTotais;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import io.quarkus.logging.Log;
+import io.quarkus.panache.common.Sort;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @ApplicationScoped
 public class SimulacaoService {
 
-	private static final AtomicLong COUNTER = new AtomicLong(0);
+	// Limite de prazo para que uma única simulação não esgote memória/CPU
+	@ConfigProperty(name = "simulacao.prazo.maximo", defaultValue = "600")
+	int prazoMaximo;
 
-	@Inject
-	ProdutoRepository produtoRepository;
+	@ConfigProperty(name = "simulacao.lote.max-itens", defaultValue = "500")
+	int loteMaxItens;
 
 	@Inject
-	CacheService cacheService;
+	ProdutoCatalogService produtoCatalogService;
 
 	@Inject
 	SimulacaoRepository simulacaoRepository;
 
+	@Inject
+	SimulacaoResumoDiaRepository resumoDiaRepository;
+
+	@Inject
+	SimulacaoContagemService contagemService;
+
 	@Inject
 	RedisQueueService redisQueueService;
 
+	@Inject
+	RedisEnqueueCoalescer enqueueCoalescer;
+
+	@Inject
+	AmortizacaoEngine amortizacaoEngine;
+
+	@Inject
+	Validator validator;
+
+	@Inject
+	SimulacaoIdGenerator idGenerator;
+
 	private static final MathContext MC = new MathContext(20, RoundingMode.HALF_UP);
 
-	private static long generateUniqueId() {
-		long timestamp = System.currentTimeMillis();
-		long counter = COUNTER.getAndUpdate(x -> (x + 1) % 1000);
-		return timestamp * 1000 + counter;
+	private Produto getProduto(SimulationRequest req) {
+		if (req.prazo() > prazoMaximo) {
+			throw new IllegalArgumentException("O prazo deve ser no máximo " + prazoMaximo + " meses.");
+		}
+		// Busca no catálogo em memória (o banco só é consultado se o catálogo não carregou)
+		Produto produto = produtoCatalogService.buscar(req.valorDesejado(), req.prazo());
+		if (produto == null) {
+			throw new IllegalArgumentException(
+					"Infelizmente não temos nenhum produto que atenda a sua solicitação no momento 😓");
+		}
+		return produto;
+	}
+
+	public SimulationResponse simular(SimulationRequest req) {
+		// Pega o produto do catálogo em memória e calcula os totais
+		SimulacaoPreparada simulacao = preparar(req);
+
+		// Inicio dos calculos
+		SimulationResponse response = calcularParcelas(simulacao);
+
+		// Guardando na fila do Redis para processamento assíncrono
+		registrar(simulacao);
+
+		// Retornando a resposta
+		return response;
 	}
 
-	private List<ParcelaDTO> calcularSAC(BigDecimal principal, BigDecimal taxaMensal, int meses) {
-		List<ParcelaDTO> parcelas = new ArrayList<>();
-		BigDecimal amortizacaoConst = principal.divide(new BigDecimal(meses), 10, RoundingMode.HALF_UP);
-		BigDecimal saldo = principal;
-		for (int n = 1; n <= meses; n++) {
-			BigDecimal juros = saldo.multiply(taxaMensal, MC).setScale(2, RoundingMode.HALF_UP);
-			BigDecimal prestacao = amortizacaoConst.add(juros).setScale(2, RoundingMode.HALF_UP);
-			BigDecimal amort = amortizacaoConst.setScale(2, RoundingMode.HALF_UP);
-			parcelas.add(new ParcelaDTO(n, amort, juros, prestacao));
-			saldo = saldo.subtract(amortizacaoConst, MC);
+	/**
+	 * Mesma simulação de {@link #simular(SimulationRequest)} sem bloquear a
+	 * thread: produto e parcelas são calculados em memória e a resposta é
+	 * liberada quando o Redis confirma o enqueue. Enquanto o catálogo não estiver
+	 * carregado, a busca do produto vai ao banco e por isso roda no pool de
+	 * workers.
+	 */
+	public Uni<SimulationResponse> simularReativo(SimulationRequest req) {
+		if (produtoCatalogService.index().isEmpty()) {
+			return Uni.createFrom().item(() -> simular(req))
+					.runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
 		}
-		return parcelas;
+		return Uni.createFrom().deferred(() -> {
+			SimulacaoPreparada simulacao = preparar(req);
+			SimulationResponse response = calcularParcelas(simulacao);
+			SimulacaoEtapaEvent evento = SimulacaoEtapaEvent.iniciar();
+			return Uni.createFrom().completionStage(enqueueCoalescer.enqueueAsync(toQueueStruct(simulacao)))
+					.invoke(() -> evento.concluir(SimulacaoEtapaEvent.ENQUEUE, simulacao.produto().codigo,
+							simulacao.prazo()))
+					.replaceWith(response);
+		});
 	}
 
-	private List<ParcelaDTO> calcularPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses) {
-		List<ParcelaDTO> parcelas = new ArrayList<>();
-		// PMT = P * i / (1 - (1+i)^-n)
-		BigDecimal i = taxaMensal;
-		BigDecimal um = BigDecimal.ONE;
-		BigDecimal fator = um.add(i, MC).pow(meses, MC);
-		BigDecimal pmt = principal.multiply(i, MC).divide(um.subtract(um.divide(fator, MC), MC), MC);
-		BigDecimal saldo = principal;
-		for (int n = 1; n <= meses; n++) {
-			BigDecimal juros = saldo.multiply(i, MC).setScale(2, RoundingMode.HALF_UP);
-			BigDecimal prestacao = pmt.setScale(2, RoundingMode.HALF_UP);
-			BigDecimal amortizacao = prestacao.subtract(juros, MC).setScale(2, RoundingMode.HALF_UP);
-			parcelas.add(new ParcelaDTO(n, amortizacao, juros, prestacao));
-			saldo = saldo.subtract(amortizacao, MC);
+	/**
+	 * Registra a simulação na fila sem montar as parcelas; elas são geradas
+	 * depois, uma a uma, por {@link SimulacaoStreamWriter}.
+	 */
+	public SimulacaoPreparada simularStream(SimulationRequest req) {
+		SimulacaoPreparada simulacao = preparar(req);
+		registrar(simulacao);
+		return simulacao;
+	}
+
+	/**
+	 * Registra a simulação e devolve só os totais SAC e PRICE, sem parcelas.
+	 */
+	public ResponseResumo simularResumo(SimulationRequest req) {
+		SimulacaoPreparada simulacao = preparar(req);
+		registrar(simulacao);
+		return resumo(simulacao);
+	}
+
+	/**
+	 * Calcula um lote de simulações em paralelo (uma virtual thread por item) e
+	 * registra todas na fila com um único RPUSH. Erros de validação ou de produto
+	 * são reportados no próprio item, sem derrubar o lote.
+	 */
+	public ResponseLote<Object> simularLote(List<SimulationRequest> reqs, boolean somenteResumo) {
+		if (reqs == null || reqs.isEmpty()) {
+			throw new IllegalArgumentException("Informe ao menos uma simulação no lote.");
+		}
+		if (reqs.size() > loteMaxItens) {
+			throw new IllegalArgumentException("O lote deve ter no máximo " + loteMaxItens + " simulações.");
+		}
+		List<Future<ItemCalculado>> futuros = new ArrayList<>(reqs.size());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (SimulationRequest req : reqs) {
+				futuros.add(executor.submit(() -> calcularItem(req, somenteResumo)));
+			}
+		}
+
+		List<ResponseLote.Item<Object>> itens = new ArrayList<>(reqs.size());
+		List<QueueStruct> fila = new ArrayList<>(reqs.size());
+		for (int i = 0; i < futuros.size(); i++) {
+			ItemCalculado calculado = resultado(futuros.get(i));
+			if (calculado.erro() != null) {
+				itens.add(new ResponseLote.Item<>(i, null, calculado.erro()));
+			} else {
+				itens.add(new ResponseLote.Item<>(i, calculado.resultado(), null));
+				fila.add(toQueueStruct(calculado.simulacao()));
+			}
+		}
+
+		try {
+			redisQueueService.enqueueAll(fila);
+		} catch (RuntimeException e) {
+			throw new FilaIndisponivelException("Falha registrando o lote na fila.", e);
 		}
-		return parcelas;
+		return new ResponseLote<>(fila.size(), itens.size() - fila.size(), itens);
 	}
 
-	private Produto getProduto(SimulationRequest req) {
-		String cacheKey = String.format("valorDesejado:%s-prazo:%d", req.valorDesejado(), req.prazo());
-		var produtoCached = cacheService.get(cacheKey);
-		if (produtoCached.isPresent()) {
-			return (Produto) produtoCached.get();
+	private ItemCalculado calcularItem(SimulationRequest req, boolean somenteResumo) {
+		if (req == null) {
+			return ItemCalculado.falha("Simulação não informada.");
 		}
-		List<Produto> produtos = produtoRepository.filterProducts(req.valorDesejado(), req.prazo());
-		if (produtos.isEmpty()) {
-			throw new IllegalArgumentException(
-					"Infelizmente não temos nenhum produto que atenda a sua solicitação no momento 😓");
+		var violacoes = validator.validate(req);
+		if (!violacoes.isEmpty()) {
+			return ItemCalculado.falha(violacoes.stream()
+					.map(ConstraintViolation::getMessage)
+					.sorted()
+					.collect(Collectors.joining(" ")));
+		}
+		try {
+			SimulacaoPreparada simulacao = preparar(req);
+			Object resultado = somenteResumo ? resumo(simulacao) : calcularParcelas(simulacao);
+			return new ItemCalculado(simulacao, resultado, null);
+		} catch (IllegalArgumentException ex) {
+			return ItemCalculado.falha(ex.getMessage());
 		}
-		cacheService.put(cacheKey, produtos.getFirst());
-		return produtos.getFirst();
 	}
 
-	@Transactional
-	public SimulationResponse simular(SimulationRequest req) {
-		// Pega o produto do banco ou cache
-		Produto produto = getProduto(req);
-		BigDecimal taxa = produto.taxaJurosMensal;
+	private static ItemCalculado resultado(Future<ItemCalculado> futuro) {
+		try {
+			return futuro.get();
+		} catch (ExecutionException e) {
+			Log.error("Falha calculando item do lote", e.getCause());
+			return ItemCalculado.falha("Falha ao calcular a simulação.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Cálculo do lote interrompido", e);
+		}
+	}
 
-		// Inicio dos calculos
-		List<ParcelaDTO> sac = calcularSAC(req.valorDesejado(), taxa, req.prazo());
-		List<ParcelaDTO> price = calcularPRICE(req.valorDesejado(), taxa, req.prazo());
+	private record ItemCalculado(SimulacaoPreparada simulacao, Object resultado, String erro) {
 
-		List<ResultadoDTO> resultados = List.of(new ResultadoDTO("SAC", sac), new ResultadoDTO("PRICE", price));
+		static ItemCalculado falha(String erro) {
+			return new ItemCalculado(null, null, erro);
+		}
+	}
 
-		BigDecimal totalSac = sac.stream()
-				.map(ParcelaDTO::valorPrestacao)
-				.reduce(BigDecimal.ZERO, BigDecimal::add)
-				.setScale(2, RoundingMode.HALF_UP);
-		BigDecimal totalPrice = price.stream()
-				.map(ParcelaDTO::valorPrestacao)
-				.reduce(BigDecimal.ZERO, BigDecimal::add)
-				.setScale(2, RoundingMode.HALF_UP);
+	private SimulationResponse calcularParcelas(SimulacaoPreparada simulacao) {
+		Produto produto = simulacao.produto();
+		BigDecimal taxa = produto.taxaJurosMensal;
 
-		// pegando a media por falta de esclarecimento
-		BigDecimal total = totalSac.add(totalPrice).divide(new BigDecimal(2), 2, RoundingMode.HALF_UP);
+		SimulacaoEtapaEvent evento = SimulacaoEtapaEvent.iniciar();
+		List<ParcelaDTO> sac = amortizacaoEngine.calcularSAC(simulacao.valorDesejado(), taxa, simulacao.prazo());
+		evento.concluir(SimulacaoEtapaEvent.CALCULAR_SAC, produto.codigo, simulacao.prazo());
 
-		// Gerar um ID único do tipo Long (timestamp + contador)
-		long simulacaoId = generateUniqueId();
+		evento = SimulacaoEtapaEvent.iniciar();
+		List<ParcelaDTO> price = amortizacaoEngine.calcularPRICE(simulacao.valorDesejado(), taxa,
+				simulacao.prazo(), simulacao.pmt());
+		evento.concluir(SimulacaoEtapaEvent.CALCULAR_PRICE, produto.codigo, simulacao.prazo());
 
-		// Guardando na fila do Redis para processamento assíncrono
-		redisQueueService.enqueue(new QueueStruct(
-				simulacaoId,
+		List<ResultadoDTO> resultados = List.of(new ResultadoDTO("SAC", sac), new ResultadoDTO("PRICE", price));
+		return new SimulationResponse(
+				simulacao.simulacaoId(),
 				produto.codigo,
 				produto.nome,
-				produto.taxaJurosMensal,
-				req.valorDesejado(),
-				req.prazo(),
-				LocalDate.now(),
-				total));
+				produto.taxaJurosMensal.stripTrailingZeros(),
+				resultados);
+	}
 
-		// Retornando a resposta
-		return new SimulationResponse(
-				simulacaoId,
+	private static ResponseResumo resumo(SimulacaoPreparada simulacao) {
+		Produto produto = simulacao.produto();
+		return new ResponseResumo(
+				simulacao.simulacaoId(),
 				produto.codigo,
 				produto.nome,
 				produto.taxaJurosMensal.stripTrailingZeros(),
-				resultados);
+				simulacao.prazo(),
+				List.of(new ResponseResumo.Total("SAC", BigDecimal.valueOf(simulacao.totalSac(), 2)),
+						new ResponseResumo.Total("PRICE", BigDecimal.valueOf(simulacao.totalPrice(), 2))));
+	}
+
+	/**
+	 * Resolve o produto e calcula os totais em forma fechada (custo independente
+	 * do prazo).
+	 */
+	private SimulacaoPreparada preparar(SimulationRequest req) {
+		SimulacaoEtapaEvent evento = SimulacaoEtapaEvent.iniciar();
+		Produto produto = getProduto(req);
+		evento.concluir(SimulacaoEtapaEvent.GET_PRODUTO, produto.codigo, req.prazo());
+		BigDecimal pmt = produtoCatalogService.fatoresPrice(produto).pmt(req.valorDesejado(), req.prazo());
+		long totalSac = AmortizacaoTotais.totalSAC(amortizacaoEngine, req.valorDesejado(), produto.taxaJurosMensal,
+				req.prazo());
+		long totalPrice = AmortizacaoTotais.totalPRICE(pmt, req.prazo());
+
+		// ID único entre nós e crescente no tempo (ver SimulacaoIdGenerator)
+		long simulacaoId = idGenerator.next();
+		return new SimulacaoPreparada(simulacaoId, produto, req.valorDesejado(), req.prazo(), pmt, totalSac,
+				totalPrice);
+	}
+
+	private void registrar(SimulacaoPreparada simulacao) {
+		SimulacaoEtapaEvent evento = SimulacaoEtapaEvent.iniciar();
+		enqueueCoalescer.enqueue(toQueueStruct(simulacao));
+		evento.concluir(SimulacaoEtapaEvent.ENQUEUE, simulacao.produto().codigo, simulacao.prazo());
+	}
+
+	private static QueueStruct toQueueStruct(SimulacaoPreparada simulacao) {
+		Produto produto = simulacao.produto();
+		return new QueueStruct(
+				simulacao.simulacaoId(),
+				produto.codigo,
+				produto.nome,
+				produto.taxaJurosMensal,
+				simulacao.valorDesejado(),
+				simulacao.prazo(),
+				LocalDate.now(),
+				simulacao.valorTotalParcelas(),
+				System.currentTimeMillis());
 	}
 
 	@Transactional
@@ -151,11 +308,60 @@ public class SimulacaoService {
 		List<ResponseAll.Registro> registros = simulacoes.stream()
 				.map(s -> new ResponseAll.Registro(s.id, s.valorDesejado, s.prazo, s.valorTotalParcelas))
 				.collect(Collectors.toList());
-		return new ResponseAll(pagina, simulacaoRepository.count(), registros.size(), registros);
+		return new ResponseAll(pagina, contagemService.total(), registros.size(), registros);
+	}
+
+	/**
+	 * Listagem por cursor: busca os registros com ID_SIMULACAO maior que o último
+	 * da página anterior (o ID cresce com o tempo), sem OFFSET. O cursor é opaco
+	 * para o cliente; null ou vazio começa do início.
+	 */
+	@Transactional
+	public ResponseAllCursor getAllSimulacoesCursor(String cursor, int qtdRegistrosPagina) {
+		long ultimoId = SimulacaoCursor.decodificar(cursor);
+		// Um registro a mais para saber se existe próxima página
+		List<Simulacao> simulacoes = simulacaoRepository
+				.find("id > ?1", Sort.ascending("id"), ultimoId)
+				.range(0, qtdRegistrosPagina)
+				.list();
+		boolean temProxima = simulacoes.size() > qtdRegistrosPagina;
+		if (temProxima) {
+			simulacoes = simulacoes.subList(0, qtdRegistrosPagina);
+		}
+		List<ResponseAll.Registro> registros = simulacoes.stream()
+				.map(s -> new ResponseAll.Registro(s.id, s.valorDesejado, s.prazo, s.valorTotalParcelas))
+				.collect(Collectors.toList());
+		String proximo = temProxima ? SimulacaoCursor.codificar(simulacoes.getLast().id) : null;
+		return new ResponseAllCursor(proximo, contagemService.total(), registros.size(), registros);
 	}
 
+	/**
+	 * Totais do dia por produto, lidos do SIMULACAO_RESUMO_DIA (uma linha por
+	 * produto). Dias sem resumo (anteriores à tabela) são calculados a partir das
+	 * simulações; o dia da entrada do resumo é completado pelo
+	 * {@link SimulacaoResumoDiaService} na inicialização.
+	 */
 	@Transactional
 	public ResponseDia getSimulacoesPorProduto(LocalDate dia) {
+		List<SimulacaoResumoDia> resumos = resumoDiaRepository.doDia(dia);
+		if (resumos.isEmpty()) {
+			return getSimulacoesPorProdutoCalculado(dia);
+		}
+		List<ResponseDia.SimuProduct> simulacoes = new ArrayList<>(resumos.size());
+		for (SimulacaoResumoDia r : resumos) {
+			BigDecimal quantidade = BigDecimal.valueOf(r.quantidade);
+			simulacoes.add(new ResponseDia.SimuProduct(
+					r.codigoProduto,
+					r.nomeProduto,
+					r.somaTaxaJuros.divide(quantidade, MC).stripTrailingZeros(),
+					r.somaValorTotalParcelas.divide(quantidade, MC).setScale(2, RoundingMode.HALF_UP),
+					r.somaValorDesejado.setScale(2, RoundingMode.HALF_UP),
+					r.somaValorTotalParcelas.setScale(2, RoundingMode.HALF_UP)));
+		}
+		return new ResponseDia(dia, simulacoes);
+	}
+
+	private ResponseDia getSimulacoesPorProdutoCalculado(LocalDate dia) {
 		List<Simulacao> sims = simulacaoRepository.find("dataReferencia", dia).list();
 		Map<Integer, List<Simulacao>> porProduto = sims.stream().collect(Collectors.groupingBy(s -> s.codigoProduto));
 
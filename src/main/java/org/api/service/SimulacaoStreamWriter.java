@@ -0,0 +1,122 @@
+package org.api.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.api.service.amortizacao.AmortizacaoEngine;
+import org.api.service.amortizacao.AmortizacaoEngine.ParcelaVisitor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Escreve uma simulação direto no OutputStream da resposta, no mesmo formato
+ * JSON de {@link org.api.dto.SimulationResponse}.
+ *
+ * As parcelas são calculadas e escritas uma a uma, sem montar listas, então a
+ * memória usada não depende do prazo.
+ */
+@ApplicationScoped
+public class SimulacaoStreamWriter {
+
+	// Suficiente para qualquer long em centavos ("-92233720368547758.08")
+	private static final int TAMANHO_BUFFER = 24;
+
+	@Inject
+	ObjectMapper mapper;
+
+	@Inject
+	AmortizacaoEngine amortizacaoEngine;
+
+	public void escrever(SimulacaoPreparada simulacao, OutputStream out) throws IOException {
+		var produto = simulacao.produto();
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+			gen.writeStartObject();
+			gen.writeNumberField("idSimulacao", simulacao.simulacaoId());
+			gen.writeNumberField("codigoProduto", produto.codigo);
+			gen.writeStringField("descricaoProduto", produto.nome);
+			gen.writeNumberField("taxaJuros", produto.taxaJurosMensal.stripTrailingZeros());
+			gen.writeArrayFieldStart("resultadoSimulacao");
+
+			ParcelaWriter parcelas = new ParcelaWriter(gen);
+			try {
+				iniciarResultado(gen, "SAC");
+				amortizacaoEngine.gerarSAC(simulacao.valorDesejado(), produto.taxaJurosMensal, simulacao.prazo(),
+						parcelas);
+				gen.writeEndArray();
+				gen.writeEndObject();
+
+				iniciarResultado(gen, "PRICE");
+				amortizacaoEngine.gerarPRICE(simulacao.valorDesejado(), produto.taxaJurosMensal, simulacao.prazo(),
+						simulacao.pmt(), parcelas);
+				gen.writeEndArray();
+				gen.writeEndObject();
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+
+			gen.writeEndArray();
+			gen.writeEndObject();
+		}
+	}
+
+	private static void iniciarResultado(JsonGenerator gen, String tipo) throws IOException {
+		gen.writeStartObject();
+		gen.writeStringField("tipo", tipo);
+		gen.writeArrayFieldStart("parcelas");
+	}
+
+	/**
+	 * Escreve cada parcela recebida do motor; o buffer de dígitos é reaproveitado
+	 * para não criar BigDecimal/String por valor.
+	 */
+	private static final class ParcelaWriter implements ParcelaVisitor {
+
+		private final JsonGenerator gen;
+		private final char[] buffer = new char[TAMANHO_BUFFER];
+
+		ParcelaWriter(JsonGenerator gen) {
+			this.gen = gen;
+		}
+
+		@Override
+		public void parcela(int numero, long amortizacao, long juros, long prestacao) {
+			try {
+				gen.writeStartObject();
+				gen.writeNumberField("numero", numero);
+				gen.writeFieldName("valorAmortizacao");
+				escreverCentavos(amortizacao);
+				gen.writeFieldName("valorJuros");
+				escreverCentavos(juros);
+				gen.writeFieldName("valorPrestacao");
+				escreverCentavos(prestacao);
+				gen.writeEndObject();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		// Mesmo texto que BigDecimal.valueOf(centavos, 2).toString()
+		private void escreverCentavos(long centavos) throws IOException {
+			int pos = buffer.length;
+			long abs = Math.abs(centavos);
+			buffer[--pos] = (char) ('0' + abs % 10);
+			abs /= 10;
+			buffer[--pos] = (char) ('0' + abs % 10);
+			abs /= 10;
+			buffer[--pos] = '.';
+			do {
+				buffer[--pos] = (char) ('0' + abs % 10);
+				abs /= 10;
+			} while (abs > 0);
+			if (centavos < 0) {
+				buffer[--pos] = '-';
+			}
+			gen.writeNumber(buffer, pos, buffer.length - pos);
+		}
+	}
+}
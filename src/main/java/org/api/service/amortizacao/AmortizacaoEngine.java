@@ -0,0 +1,53 @@
+package org.api.service.amortizacao;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.api.dto.ParcelaDTO;
+
+/**
+ * Calcula as parcelas de uma simulação nos sistemas SAC e PRICE.
+ *
+ * Todas as implementações devem produzir exatamente o mesmo resultado da
+ * {@link BigDecimalAmortizacaoEngine}, que é a referência.
+ */
+public interface AmortizacaoEngine {
+
+	/**
+	 * Recebe as parcelas uma a uma, em centavos, à medida que são calculadas.
+	 */
+	@FunctionalInterface
+	interface ParcelaVisitor {
+		void parcela(int numero, long amortizacao, long juros, long prestacao);
+	}
+
+	List<ParcelaDTO> calcularSAC(BigDecimal principal, BigDecimal taxaMensal, int meses);
+
+	/**
+	 * Calcula a tabela PRICE usando um PMT já calculado (ex: pela
+	 * {@link PriceFatorTable} do produto).
+	 */
+	List<ParcelaDTO> calcularPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt);
+
+	default List<ParcelaDTO> calcularPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses) {
+		return calcularPRICE(principal, taxaMensal, meses, pmt(principal, taxaMensal, meses));
+	}
+
+	/**
+	 * Gera as parcelas SAC sem montar lista, entregando cada uma ao visitor.
+	 */
+	void gerarSAC(BigDecimal principal, BigDecimal taxaMensal, int meses, ParcelaVisitor visitor);
+
+	/**
+	 * Gera as parcelas PRICE sem montar lista, entregando cada uma ao visitor.
+	 */
+	void gerarPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt, ParcelaVisitor visitor);
+
+	/**
+	 * PMT = P * i / (1 - (1+i)^-n), sem tabela de fatores.
+	 */
+	static BigDecimal pmt(BigDecimal principal, BigDecimal taxaMensal, int meses) {
+		return principal.multiply(taxaMensal, BigDecimalAmortizacaoEngine.MC)
+				.divide(PriceFatorTable.denominador(taxaMensal, meses), BigDecimalAmortizacaoEngine.MC);
+	}
+}
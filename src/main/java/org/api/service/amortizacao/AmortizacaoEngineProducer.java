@@ -0,0 +1,29 @@
+package org.api.service.amortizacao;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+
+/**
+ * Escolhe a implementação de {@link AmortizacaoEngine} pela configuração
+ * simulacao.engine (bigdecimal ou ponto-fixo).
+ */
+@ApplicationScoped
+public class AmortizacaoEngineProducer {
+
+	@ConfigProperty(name = "simulacao.engine", defaultValue = "bigdecimal")
+	String engine;
+
+	@Produces
+	@ApplicationScoped
+	AmortizacaoEngine amortizacaoEngine() {
+		Log.infof("Motor de amortização: %s", engine);
+		return switch (engine) {
+			case "bigdecimal" -> new BigDecimalAmortizacaoEngine();
+			case "ponto-fixo" -> new FixedPointAmortizacaoEngine();
+			default -> throw new IllegalArgumentException("simulacao.engine inválido: " + engine);
+		};
+	}
+}
@@ -0,0 +1,122 @@
+package org.api.service.amortizacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Soma das prestações SAC e PRICE sem gerar as parcelas.
+ *
+ * PRICE: a prestação é constante, então o total é meses * PMT arredondado.
+ *
+ * SAC: a prestação n é amortização arredondada + juros n, e os juros são
+ * round((N - (n-1)A) * i), com N e A em escala 10. O saldo é linear em n, então
+ * a soma dos juros arredondados é uma soma de pisos de uma progressão
+ * aritmética, calculada em O(log n) pelo algoritmo euclidiano de floor_sum.
+ * O arredondamento é o mesmo do {@link FixedPointAmortizacaoEngine}, parcela a
+ * parcela; fora do domínio do cálculo em long a soma é feita gerando as
+ * parcelas pelo motor informado.
+ */
+public final class AmortizacaoTotais {
+
+	private static final int ESCALA_SAC = 10;
+
+	private AmortizacaoTotais() {
+	}
+
+	/**
+	 * Total das prestações PRICE, em centavos.
+	 */
+	public static long totalPRICE(BigDecimal pmt, int meses) {
+		long prestacao = pmt.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+		return Math.multiplyExact(prestacao, meses);
+	}
+
+	/**
+	 * Total das prestações SAC, em centavos.
+	 */
+	public static long totalSAC(AmortizacaoEngine engine, BigDecimal principal, BigDecimal taxaMensal, int meses) {
+		try {
+			Long total = totalSACFechado(principal, taxaMensal, meses);
+			if (total != null) {
+				return total;
+			}
+		} catch (ArithmeticException e) {
+			// fora do domínio em long; soma parcela a parcela
+		}
+		long[] total = new long[1];
+		engine.gerarSAC(principal, taxaMensal, meses, (n, amort, juros, prestacao) -> total[0] += prestacao);
+		return total[0];
+	}
+
+	/**
+	 * Média dos totais SAC e PRICE, que é o valor registrado da simulação.
+	 */
+	public static BigDecimal valorTotalParcelas(long totalSac, long totalPrice) {
+		return BigDecimal.valueOf(Math.addExact(totalSac, totalPrice), 2)
+				.divide(new BigDecimal(2), 2, RoundingMode.HALF_UP);
+	}
+
+	// null quando as premissas (valores não negativos, escala dos juros > 0) não valem
+	private static Long totalSACFechado(BigDecimal principal, BigDecimal taxaMensal, int meses) {
+		if (principal.signum() < 0 || taxaMensal.signum() < 0 || principal.scale() > ESCALA_SAC) {
+			return null;
+		}
+		FixedPointAmortizacaoEngine.Taxa taxa = FixedPointAmortizacaoEngine.Taxa.of(taxaMensal);
+		int escalaJuros = ESCALA_SAC + taxa.escala() - taxa.zeros() - 2;
+		if (escalaJuros <= 0 || escalaJuros > 18) {
+			return null;
+		}
+		long divisor = pow10(escalaJuros);
+
+		long principal10 = principal.setScale(ESCALA_SAC).unscaledValue().longValueExact();
+		long amortizacaoConst = FixedPointAmortizacaoEngine.divHalfUp(principal10, meses);
+		long amort = FixedPointAmortizacaoEngine.escalarCentavos(amortizacaoConst, ESCALA_SAC);
+		// Saldo antes da última parcela; a partir dele o saldo cresce A por parcela (ordem inversa)
+		long ultimoSaldo = Math.subtractExact(principal10, Math.multiplyExact(amortizacaoConst, meses - 1L));
+		if (ultimoSaldo < 0) {
+			return null;
+		}
+		// Garante que saldo * mantissa cabe em long, como no motor de ponto fixo
+		Math.multiplyExact(principal10, taxa.mantissa());
+
+		long somaJuros = floorSum(meses,
+				divisor,
+				Math.multiplyExact(amortizacaoConst, taxa.mantissa()),
+				Math.addExact(Math.multiplyExact(ultimoSaldo, taxa.mantissa()), divisor / 2));
+		return Math.addExact(Math.multiplyExact(amort, meses), somaJuros);
+	}
+
+	/**
+	 * Soma de floor((a * k + b) / m) para k em [0, n), com a, b >= 0 e m > 0.
+	 */
+	static long floorSum(long n, long m, long a, long b) {
+		long resultado = 0;
+		while (true) {
+			if (a >= m) {
+				resultado = Math.addExact(resultado, Math.multiplyExact(n * (n - 1) / 2, a / m));
+				a %= m;
+			}
+			if (b >= m) {
+				resultado = Math.addExact(resultado, Math.multiplyExact(n, b / m));
+				b %= m;
+			}
+			long yMax = Math.addExact(Math.multiplyExact(a, n), b);
+			if (yMax < m) {
+				return resultado;
+			}
+			n = yMax / m;
+			b = yMax % m;
+			long troca = m;
+			m = a;
+			a = troca;
+		}
+	}
+
+	private static long pow10(int expoente) {
+		long valor = 1;
+		for (int i = 0; i < expoente; i++) {
+			valor *= 10;
+		}
+		return valor;
+	}
+}
@@ -0,0 +1,82 @@
+package org.api.service.amortizacao;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.api.dto.ParcelaDTO;
+
+/**
+ * Implementação de referência, toda em BigDecimal com 20 dígitos de precisão
+ * e arredondamento HALF_UP em cada parcela.
+ */
+public class BigDecimalAmortizacaoEngine implements AmortizacaoEngine {
+
+	static final MathContext MC = new MathContext(20, RoundingMode.HALF_UP);
+
+	@Override
+	public List<ParcelaDTO> calcularSAC(BigDecimal principal, BigDecimal taxaMensal, int meses) {
+		List<ParcelaDTO> parcelas = new ArrayList<>();
+		sac(principal, taxaMensal, meses, (n, amort, juros, prestacao) -> parcelas.add(
+				new ParcelaDTO(n, amort, juros, prestacao)));
+		return parcelas;
+	}
+
+	@Override
+	public List<ParcelaDTO> calcularPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt) {
+		List<ParcelaDTO> parcelas = new ArrayList<>();
+		price(principal, taxaMensal, meses, pmt, (n, amort, juros, prestacao) -> parcelas.add(
+				new ParcelaDTO(n, amort, juros, prestacao)));
+		return parcelas;
+	}
+
+	@Override
+	public void gerarSAC(BigDecimal principal, BigDecimal taxaMensal, int meses, ParcelaVisitor visitor) {
+		sac(principal, taxaMensal, meses, (n, amort, juros, prestacao) -> visitor.parcela(
+				n, centavos(amort), centavos(juros), centavos(prestacao)));
+	}
+
+	@Override
+	public void gerarPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt,
+			ParcelaVisitor visitor) {
+		price(principal, taxaMensal, meses, pmt, (n, amort, juros, prestacao) -> visitor.parcela(
+				n, centavos(amort), centavos(juros), centavos(prestacao)));
+	}
+
+	private static void sac(BigDecimal principal, BigDecimal taxaMensal, int meses, Parcelas parcelas) {
+		BigDecimal amortizacaoConst = principal.divide(new BigDecimal(meses), 10, RoundingMode.HALF_UP);
+		BigDecimal saldo = principal;
+		for (int n = 1; n <= meses; n++) {
+			BigDecimal juros = saldo.multiply(taxaMensal, MC).setScale(2, RoundingMode.HALF_UP);
+			BigDecimal prestacao = amortizacaoConst.add(juros).setScale(2, RoundingMode.HALF_UP);
+			BigDecimal amort = amortizacaoConst.setScale(2, RoundingMode.HALF_UP);
+			parcelas.add(n, amort, juros, prestacao);
+			saldo = saldo.subtract(amortizacaoConst, MC);
+		}
+	}
+
+	private static void price(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt,
+			Parcelas parcelas) {
+		BigDecimal i = taxaMensal;
+		BigDecimal saldo = principal;
+		for (int n = 1; n <= meses; n++) {
+			BigDecimal juros = saldo.multiply(i, MC).setScale(2, RoundingMode.HALF_UP);
+			BigDecimal prestacao = pmt.setScale(2, RoundingMode.HALF_UP);
+			BigDecimal amortizacao = prestacao.subtract(juros, MC).setScale(2, RoundingMode.HALF_UP);
+			parcelas.add(n, amortizacao, juros, prestacao);
+			saldo = saldo.subtract(amortizacao, MC);
+		}
+	}
+
+	// Valores já estão na escala 2
+	private static long centavos(BigDecimal valor) {
+		return valor.unscaledValue().longValueExact();
+	}
+
+	@FunctionalInterface
+	private interface Parcelas {
+		void add(int numero, BigDecimal amortizacao, BigDecimal juros, BigDecimal prestacao);
+	}
+}
@@ -0,0 +1,220 @@
+package org.api.service.amortizacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.api.dto.ParcelaDTO;
+
+/**
+ * Cálculo das parcelas em aritmética de ponto fixo com long.
+ *
+ * Valores monetários são tratados em centavos e o saldo devedor em unidades de
+ * 10^-escala, a mesma escala que o BigDecimal de referência teria. A taxa é
+ * decomposta em mantissa sem zeros à direita e expoente; enquanto o produto
+ * saldo * mantissa couber em um long, ele tem no máximo 19 dígitos
+ * significativos e o arredondamento para 20 dígitos da referência não altera o
+ * valor, então o HALF_UP para centavos dá exatamente o mesmo resultado.
+ *
+ * Qualquer estouro (ArithmeticException) faz a simulação inteira ser refeita na
+ * {@link BigDecimalAmortizacaoEngine}.
+ */
+public class FixedPointAmortizacaoEngine implements AmortizacaoEngine {
+
+	private static final int ESCALA_SAC = 10;
+	private static final long[] POT10 = new long[19];
+
+	static {
+		POT10[0] = 1;
+		for (int i = 1; i < POT10.length; i++) {
+			POT10[i] = POT10[i - 1] * 10;
+		}
+	}
+
+	private final BigDecimalAmortizacaoEngine referencia = new BigDecimalAmortizacaoEngine();
+
+	@Override
+	public List<ParcelaDTO> calcularSAC(BigDecimal principal, BigDecimal taxaMensal, int meses) {
+		try {
+			List<ParcelaDTO> parcelas = new ArrayList<>(meses);
+			sac(principal, taxaMensal, meses, (n, amort, juros, prestacao) -> parcelas.add(
+					new ParcelaDTO(n, centavos(amort), centavos(juros), centavos(prestacao))));
+			return parcelas;
+		} catch (ArithmeticException e) {
+			return referencia.calcularSAC(principal, taxaMensal, meses);
+		}
+	}
+
+	@Override
+	public List<ParcelaDTO> calcularPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt) {
+		try {
+			List<ParcelaDTO> parcelas = new ArrayList<>(meses);
+			price(principal, taxaMensal, meses, pmt, (n, amort, juros, prestacao) -> parcelas.add(
+					new ParcelaDTO(n, centavos(amort), centavos(juros), centavos(prestacao))));
+			return parcelas;
+		} catch (ArithmeticException e) {
+			return referencia.calcularPRICE(principal, taxaMensal, meses, pmt);
+		}
+	}
+
+	/**
+	 * Como as parcelas já entregues ao visitor não podem ser desfeitas, o domínio
+	 * é conferido antes de começar; fora dele tudo é gerado pela referência.
+	 */
+	@Override
+	public void gerarSAC(BigDecimal principal, BigDecimal taxaMensal, int meses, ParcelaVisitor visitor) {
+		if (!suportaSAC(principal, taxaMensal)) {
+			referencia.gerarSAC(principal, taxaMensal, meses, visitor);
+			return;
+		}
+		sac(principal, taxaMensal, meses, visitor);
+	}
+
+	@Override
+	public void gerarPRICE(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt,
+			ParcelaVisitor visitor) {
+		if (!suportaPRICE(principal, taxaMensal, pmt)) {
+			referencia.gerarPRICE(principal, taxaMensal, meses, pmt, visitor);
+			return;
+		}
+		price(principal, taxaMensal, meses, pmt, visitor);
+	}
+
+	private static void sac(BigDecimal principal, BigDecimal taxaMensal, int meses, ParcelaVisitor visitor) {
+		Taxa taxa = Taxa.of(taxaMensal);
+		int escalaPrincipal = escalaSuportada(principal);
+		long unscaledPrincipal = principal.unscaledValue().longValueExact();
+		// Principal e amortização constante na escala 10 usada pela referência
+		long principal10 = principal.setScale(ESCALA_SAC).unscaledValue().longValueExact();
+		long amortizacaoConst = divHalfUp(principal10, meses);
+		long amort = escalarCentavos(amortizacaoConst, ESCALA_SAC);
+
+		long saldo = principal10;
+		for (int n = 1; n <= meses; n++) {
+			// Na primeira parcela o saldo ainda é o principal com a escala original
+			long juros = (n == 1)
+					? taxa.jurosCentavos(unscaledPrincipal, escalaPrincipal)
+					: taxa.jurosCentavos(saldo, ESCALA_SAC);
+			long prestacao = escalarCentavos(
+					Math.addExact(amortizacaoConst, Math.multiplyExact(juros, POT10[ESCALA_SAC - 2])), ESCALA_SAC);
+			visitor.parcela(n, amort, juros, prestacao);
+			saldo = Math.subtractExact(saldo, amortizacaoConst);
+		}
+	}
+
+	private static void price(BigDecimal principal, BigDecimal taxaMensal, int meses, BigDecimal pmt,
+			ParcelaVisitor visitor) {
+		Taxa taxa = Taxa.of(taxaMensal);
+		int escalaPrincipal = escalaSuportada(principal);
+		long unscaledPrincipal = principal.unscaledValue().longValueExact();
+		long prestacao = pmt.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+
+		// Depois da primeira subtração o saldo fica na maior escala entre principal e centavos
+		int escalaSaldo = Math.max(escalaPrincipal, 2);
+		long fatorCentavos = POT10[escalaSaldo - 2];
+
+		long saldo = Math.multiplyExact(unscaledPrincipal, POT10[escalaSaldo - escalaPrincipal]);
+		for (int n = 1; n <= meses; n++) {
+			long juros = (n == 1)
+					? taxa.jurosCentavos(unscaledPrincipal, escalaPrincipal)
+					: taxa.jurosCentavos(saldo, escalaSaldo);
+			long amortizacao = Math.subtractExact(prestacao, juros);
+			visitor.parcela(n, amortizacao, juros, prestacao);
+			saldo = Math.subtractExact(saldo, Math.multiplyExact(amortizacao, fatorCentavos));
+		}
+	}
+
+	// O saldo só diminui; o dobro do inicial dá folga para o resíduo das últimas parcelas
+	private static boolean suportaSAC(BigDecimal principal, BigDecimal taxaMensal) {
+		try {
+			Taxa taxa = Taxa.of(taxaMensal);
+			escalaSuportada(principal);
+			principal.unscaledValue().longValueExact();
+			long principal10 = principal.setScale(ESCALA_SAC).unscaledValue().longValueExact();
+			Math.multiplyExact(Math.multiplyExact(principal10, 2), taxa.mantissa());
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		}
+	}
+
+	private static boolean suportaPRICE(BigDecimal principal, BigDecimal taxaMensal, BigDecimal pmt) {
+		try {
+			Taxa taxa = Taxa.of(taxaMensal);
+			int escalaPrincipal = escalaSuportada(principal);
+			long unscaledPrincipal = principal.unscaledValue().longValueExact();
+			pmt.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+			int escalaSaldo = Math.max(escalaPrincipal, 2);
+			long saldo = Math.multiplyExact(unscaledPrincipal, POT10[escalaSaldo - escalaPrincipal]);
+			Math.multiplyExact(Math.multiplyExact(saldo, 2), taxa.mantissa());
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		}
+	}
+
+	private static int escalaSuportada(BigDecimal valor) {
+		int escala = valor.scale();
+		if (escala > ESCALA_SAC || escala < 2 - (POT10.length - 1)) {
+			throw new ArithmeticException("Escala fora do suportado: " + escala);
+		}
+		return escala;
+	}
+
+	private static BigDecimal centavos(long valor) {
+		return BigDecimal.valueOf(valor, 2);
+	}
+
+	/**
+	 * Arredonda HALF_UP um valor na escala informada para centavos (escala 2).
+	 */
+	static long escalarCentavos(long valor, int escala) {
+		int diferenca = escala - 2;
+		if (diferenca <= 0) {
+			if (-diferenca >= POT10.length) {
+				throw new ArithmeticException("Escala fora do suportado: " + escala);
+			}
+			return Math.multiplyExact(valor, POT10[-diferenca]);
+		}
+		if (diferenca >= POT10.length) {
+			throw new ArithmeticException("Escala fora do suportado: " + escala);
+		}
+		return divHalfUp(valor, POT10[diferenca]);
+	}
+
+	/**
+	 * Divisão inteira com arredondamento HALF_UP (metade se afasta do zero).
+	 */
+	static long divHalfUp(long dividendo, long divisor) {
+		long quociente = dividendo / divisor;
+		long resto = Math.abs(dividendo % divisor);
+		if (resto >= divisor - resto) {
+			quociente += Long.signum(dividendo);
+		}
+		return quociente;
+	}
+
+	/**
+	 * Taxa mensal decomposta em mantissa * 10^zeros, com a escala original.
+	 */
+	record Taxa(long mantissa, int zeros, int escala) {
+
+		static Taxa of(BigDecimal taxa) {
+			long mantissa = taxa.unscaledValue().longValueExact();
+			int zeros = 0;
+			while (mantissa != 0 && mantissa % 10 == 0) {
+				mantissa /= 10;
+				zeros++;
+			}
+			return new Taxa(mantissa, zeros, taxa.scale());
+		}
+
+		/**
+		 * Juros em centavos sobre um saldo em unidades de 10^-escalaSaldo.
+		 */
+		long jurosCentavos(long saldo, int escalaSaldo) {
+			return escalarCentavos(Math.multiplyExact(saldo, mantissa), escalaSaldo + escala - zeros);
+		}
+	}
+}
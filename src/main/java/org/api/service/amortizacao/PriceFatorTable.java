@@ -0,0 +1,87 @@
+package org.api.service.amortizacao;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.api.database.sqlserver.model.Produto;
+
+/**
+ * Fatores da tabela PRICE de um produto, por prazo.
+ *
+ * Guarda o denominador 1 - (1+i)^-n de cada prazo, calculado com o mesmo
+ * MathContext da referência, para que o PMT de uma simulação custe apenas
+ * P * i / denominador. Prazos dentro da faixa do produto são calculados na
+ * criação; os demais (produto sem prazo máximo) são preenchidos sob demanda.
+ */
+public final class PriceFatorTable {
+
+	private static final MathContext MC = BigDecimalAmortizacaoEngine.MC;
+
+	// Limite de prazos guardados sob demanda; acima disso o fator é calculado a cada uso
+	private static final int MAX_SOB_DEMANDA = 10_000;
+
+	private final BigDecimal taxa;
+	private final int prazoInicial;
+	private final BigDecimal[] denominadores;
+	private final Map<Integer, BigDecimal> sobDemanda = new ConcurrentHashMap<>();
+
+	public PriceFatorTable(BigDecimal taxa, int prazoMinimo, Integer prazoMaximo) {
+		this.taxa = taxa;
+		this.prazoInicial = Math.max(1, prazoMinimo);
+		int tamanho = prazoMaximo == null ? 0 : Math.max(0, prazoMaximo - prazoInicial + 1);
+		this.denominadores = new BigDecimal[tamanho];
+		for (int i = 0; i < tamanho; i++) {
+			denominadores[i] = denominador(taxa, prazoInicial + i);
+		}
+	}
+
+	public static PriceFatorTable of(Produto produto) {
+		Integer maximo = produto.maximoMeses == null ? null : produto.maximoMeses.intValue();
+		return new PriceFatorTable(produto.taxaJurosMensal, produto.minimoMeses, maximo);
+	}
+
+	/**
+	 * Indica se a tabela ainda vale para o produto (mesma taxa e faixa de prazos).
+	 */
+	public boolean atende(Produto produto) {
+		Integer maximo = produto.maximoMeses == null ? null : produto.maximoMeses.intValue();
+		int tamanho = maximo == null ? 0 : Math.max(0, maximo - Math.max(1, produto.minimoMeses) + 1);
+		return taxa.equals(produto.taxaJurosMensal)
+				&& prazoInicial == Math.max(1, produto.minimoMeses)
+				&& denominadores.length == tamanho;
+	}
+
+	public BigDecimal taxa() {
+		return taxa;
+	}
+
+	/**
+	 * PMT = P * i / (1 - (1+i)^-n)
+	 */
+	public BigDecimal pmt(BigDecimal principal, int meses) {
+		return principal.multiply(taxa, MC).divide(denominador(meses), MC);
+	}
+
+	public BigDecimal denominador(int meses) {
+		int posicao = meses - prazoInicial;
+		if (posicao >= 0 && posicao < denominadores.length) {
+			return denominadores[posicao];
+		}
+		BigDecimal denominador = sobDemanda.get(meses);
+		if (denominador == null) {
+			denominador = denominador(taxa, meses);
+			if (sobDemanda.size() < MAX_SOB_DEMANDA) {
+				sobDemanda.putIfAbsent(meses, denominador);
+			}
+		}
+		return denominador;
+	}
+
+	static BigDecimal denominador(BigDecimal taxa, int meses) {
+		BigDecimal um = BigDecimal.ONE;
+		BigDecimal fator = um.add(taxa, MC).pow(meses, MC);
+		return um.subtract(um.divide(fator, MC), MC);
+	}
+}
@@ -0,0 +1,146 @@
+package org.api.worker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.api.dto.WorkerSnapshot;
+
+/**
+ * Define o tamanho de cada dequeueBatch a partir da profundidade da fila e da
+ * latência das gravações, dentro de [mínimo, máximo].
+ *
+ * A profundidade é amostrada no máximo uma vez por intervalo e dividida entre
+ * os consumidores. A latência controla um teto à parte (AIMD): uma gravação
+ * acima do alvo reduz o teto em 25%; um lote cheio gravado dentro do alvo o
+ * aumenta em 25%. O tamanho usado é o menor dos dois.
+ */
+final class AdaptiveBatchSizer {
+
+	private static final double ALFA = 0.2;
+
+	// O texto do motivo só é montado no snapshot, fora do caminho da gravação
+	private enum Motivo {
+		INICIAL, FIXO, MINIMO, MAXIMO, PROFUNDIDADE, LATENCIA
+	}
+
+	private final boolean adaptativo;
+	private final int minimo;
+	private final int maximo;
+	private final int consumidores;
+	private final long latenciaAlvoNanos;
+	private final long intervaloAmostraNanos;
+	private final LongSupplier profundidade;
+	private final AtomicLong proximaAmostra = new AtomicLong(System.nanoTime());
+
+	// Estado protegido por this; tamanho é lido sem lock pelos consumidores
+	private volatile int tamanho;
+	private int limiteLatencia;
+	private long ultimaProfundidade = -1;
+	private double latenciaMediaNanos;
+	private Motivo motivo;
+	// Profundidade e latência média no momento em que o motivo foi definido
+	private long motivoProfundidade;
+	private double motivoLatenciaNanos;
+
+	AdaptiveBatchSizer(boolean adaptativo, int inicial, int minimo, int maximo, int consumidores,
+			Duration latenciaAlvo, Duration intervaloAmostra, LongSupplier profundidade) {
+		if (minimo < 1 || maximo < minimo) {
+			throw new IllegalArgumentException("Limites de lote inválidos: mínimo=" + minimo + " máximo=" + maximo);
+		}
+		this.adaptativo = adaptativo;
+		this.minimo = minimo;
+		this.maximo = maximo;
+		this.consumidores = Math.max(1, consumidores);
+		this.latenciaAlvoNanos = latenciaAlvo.toNanos();
+		this.intervaloAmostraNanos = intervaloAmostra.toNanos();
+		this.profundidade = profundidade;
+		this.tamanho = adaptativo ? limitar(inicial) : inicial;
+		this.limiteLatencia = maximo;
+		this.motivo = adaptativo ? Motivo.INICIAL : Motivo.FIXO;
+	}
+
+	/**
+	 * Tamanho do próximo dequeueBatch.
+	 */
+	int proximo() {
+		// A amostra também alimenta as métricas, então é feita mesmo com tamanho fixo
+		long agora = System.nanoTime();
+		long proxima = proximaAmostra.get();
+		if (agora - proxima >= 0 && proximaAmostra.compareAndSet(proxima, agora + intervaloAmostraNanos)) {
+			amostrar();
+		}
+		return tamanho;
+	}
+
+	/**
+	 * Registra a gravação de um lote: quantidade de itens e duração.
+	 */
+	synchronized void registrarGravacao(int itens, long nanos) {
+		if (itens == 0) {
+			return;
+		}
+		latenciaMediaNanos = latenciaMediaNanos == 0 ? nanos : latenciaMediaNanos * (1 - ALFA) + nanos * ALFA;
+		if (!adaptativo) {
+			return;
+		}
+		if (nanos > latenciaAlvoNanos) {
+			limiteLatencia = Math.max(minimo, limiteLatencia - limiteLatencia / 4);
+		} else if (itens >= tamanho && limiteLatencia < maximo) {
+			limiteLatencia = Math.min(maximo, limiteLatencia + Math.max(1, limiteLatencia / 4));
+		}
+		recalcular();
+	}
+
+	synchronized WorkerSnapshot snapshot() {
+		return new WorkerSnapshot(tamanho, descricaoMotivo(), ultimaProfundidade, latenciaMediaNanos / 1_000_000.0,
+				limiteLatencia, minimo, maximo, adaptativo);
+	}
+
+	private void amostrar() {
+		long valor;
+		try {
+			valor = profundidade.getAsLong();
+		} catch (Exception e) {
+			return; // mantém a última amostra
+		}
+		synchronized (this) {
+			ultimaProfundidade = valor;
+			if (adaptativo) {
+				recalcular();
+			}
+		}
+	}
+
+	// Chamado com o lock
+	private void recalcular() {
+		long porFila = ultimaProfundidade < 0 ? maximo : (ultimaProfundidade + consumidores - 1) / consumidores;
+		int novo;
+		if (porFila <= limiteLatencia) {
+			novo = limitar(porFila);
+			motivo = porFila < minimo ? Motivo.MINIMO : porFila > maximo ? Motivo.MAXIMO : Motivo.PROFUNDIDADE;
+		} else {
+			novo = limitar(limiteLatencia);
+			motivo = Motivo.LATENCIA;
+		}
+		motivoProfundidade = ultimaProfundidade;
+		motivoLatenciaNanos = latenciaMediaNanos;
+		tamanho = novo;
+	}
+
+	// Chamado com o lock
+	private String descricaoMotivo() {
+		return switch (motivo) {
+			case INICIAL -> "inicial";
+			case FIXO -> "fixo (queue.batch.size)";
+			case MINIMO -> "mínimo (fila com " + motivoProfundidade + ")";
+			case MAXIMO -> "máximo";
+			case PROFUNDIDADE -> "profundidade da fila (" + motivoProfundidade + ")";
+			case LATENCIA -> String.format("latência de gravação (média %.1f ms)", motivoLatenciaNanos / 1_000_000.0);
+		};
+	}
+
+	private int limitar(long valor) {
+		return (int) Math.max(minimo, Math.min(maximo, valor));
+	}
+}
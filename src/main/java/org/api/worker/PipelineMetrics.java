@@ -0,0 +1,43 @@
+package org.api.worker;
+
+import java.util.List;
+
+import org.api.dto.DistribuicaoSnapshot;
+import org.api.dto.QueueStruct;
+import org.api.performance.MetricsDistribuicao;
+
+/**
+ * Medidas do pipeline da fila, do enqueue na API até a gravação no Postgres.
+ */
+class PipelineMetrics {
+
+	final MetricsDistribuicao profundidadeFila = MetricsDistribuicao.contagem("profundidadeFila");
+	final MetricsDistribuicao tamanhoLote = MetricsDistribuicao.contagem("tamanhoLote");
+	final MetricsDistribuicao esperaLeitura = MetricsDistribuicao.duracao("esperaLeitura");
+	final MetricsDistribuicao gravacao = MetricsDistribuicao.duracao("gravacao");
+	final MetricsDistribuicao publicacao = MetricsDistribuicao.duracao("publicacao");
+	final MetricsDistribuicao atrasoGravacao = MetricsDistribuicao.duracao("atrasoEnqueueAteGravacao");
+
+	/**
+	 * Registra, para cada item com enfileiradoEm, o tempo entre o enqueue e agora.
+	 * Usa o relógio de parede porque o enqueue pode ter sido em outro nó.
+	 */
+	void registrarAtraso(List<QueueStruct> itens) {
+		long agora = System.currentTimeMillis();
+		for (QueueStruct item : itens) {
+			if (item.enfileiradoEm() != null) {
+				atrasoGravacao.registrar((agora - item.enfileiradoEm()) * 1000);
+			}
+		}
+	}
+
+	List<DistribuicaoSnapshot> snapshot() {
+		return List.of(
+				profundidadeFila.snapshot(),
+				tamanhoLote.snapshot(),
+				esperaLeitura.snapshot(),
+				gravacao.snapshot(),
+				publicacao.snapshot(),
+				atrasoGravacao.snapshot());
+	}
+}
@@ -1,15 +1,26 @@
 package org.api.worker;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.api.database.postgres.model.Simulacao;
+import org.api.database.postgres.repository.SimulacaoCopyWriter;
 import org.api.database.postgres.repository.SimulacaoRepository;
+import org.api.database.postgres.repository.SimulacaoResumoDiaRepository;
+import org.api.dto.DistribuicaoSnapshot;
 import org.api.dto.QueueStruct;
+import org.api.dto.WorkerSnapshot;
 import org.api.event.EventHubProducer;
+import org.api.performance.jfr.WorkerEtapaEvent;
+import org.api.service.QueueBatch;
 import org.api.service.RedisQueueService;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
@@ -25,9 +36,42 @@ import jakarta.transaction.Transactional;
 @ApplicationScoped
 public class SimulationQueueWorker {
 
+	// Tamanho inicial (ou fixo, sem o ajuste adaptativo) de cada dequeueBatch
 	@ConfigProperty(name = "queue.batch.size", defaultValue = "100")
 	int batchSize;
 
+	@ConfigProperty(name = "queue.batch.adaptativo", defaultValue = "true")
+	boolean batchAdaptativo;
+
+	@ConfigProperty(name = "queue.batch.min", defaultValue = "10")
+	int batchMin;
+
+	@ConfigProperty(name = "queue.batch.max", defaultValue = "1000")
+	int batchMax;
+
+	@ConfigProperty(name = "queue.batch.latencia-alvo", defaultValue = "200ms")
+	Duration latenciaAlvo;
+
+	@ConfigProperty(name = "queue.batch.intervalo-amostra", defaultValue = "1s")
+	Duration intervaloAmostra;
+
+	@ConfigProperty(name = "queue.worker.consumidores", defaultValue = "1")
+	int consumidores;
+
+	@ConfigProperty(name = "queue.worker.inseridores", defaultValue = "2")
+	int inseridores;
+
+	// Lotes aguardando entre um estágio e o próximo
+	@ConfigProperty(name = "queue.worker.buffer", defaultValue = "4")
+	int buffer;
+
+	// copy: COPY FROM STDIN, com o Hibernate como reserva; hibernate: persist + flush
+	@ConfigProperty(name = "queue.worker.insert-mode", defaultValue = "copy")
+	String insertMode;
+
+	@ConfigProperty(name = "eventhub.enabled", defaultValue = "false")
+	boolean eventHubEnabled;
+
 	@Inject
 	RedisQueueService redisService;
 
@@ -37,40 +81,208 @@ public class SimulationQueueWorker {
 	@Inject
 	SimulacaoRepository simulacaoRepository;
 
-	private ExecutorService executor;
+	@Inject
+	SimulacaoCopyWriter copyWriter;
+
+	@Inject
+	SimulacaoResumoDiaRepository resumoDiaRepository;
+
+	private static final long POLL_MS = 100;
+	private static final long ESPERA_FINALIZACAO_SEGUNDOS = 10;
+
+	/*
+	 * Pipeline: consumidores (dequeueBatch) -> paraInserir -> inseridores
+	 * (Postgres) -> paraPublicar -> publicador (Event Hub). As filas entre os
+	 * estágios são limitadas; quando enchem, o estágio anterior espera, então o
+	 * worker nunca tira do Redis mais do que consegue gravar.
+	 */
+	private BlockingQueue<QueueBatch> paraInserir;
+	private BlockingQueue<QueueBatch> paraPublicar;
+	private ExecutorService consumidoresExecutor;
+	private ExecutorService inseridoresExecutor;
+	private ExecutorService publicadorExecutor;
+	/*
+	 * Cada estágio para com a sua flag, na ordem do pipeline: os inseridores só
+	 * param depois que os consumidores terminaram (nada mais entra em
+	 * paraInserir), e o publicador só depois dos inseridores.
+	 */
 	private final AtomicBoolean running = new AtomicBoolean(false);
+	private final AtomicBoolean inserindo = new AtomicBoolean(false);
+	private final AtomicBoolean publicando = new AtomicBoolean(false);
+	private boolean insertCopy;
+	private AdaptiveBatchSizer batchSizer;
+	private final PipelineMetrics metricas = new PipelineMetrics();
 
 	public void onStart(@Observes StartupEvent ev) {
-		executor = Executors.newFixedThreadPool(1); // Somente 1 thread para processar a fila nesse caso é o suficiente
+		insertCopy = switch (insertMode) {
+			case "copy" -> true;
+			case "hibernate" -> false;
+			default -> throw new IllegalArgumentException("queue.worker.insert-mode inválido: " + insertMode);
+		};
+		batchSizer = new AdaptiveBatchSizer(batchAdaptativo, batchSize, batchMin, batchMax, consumidores,
+				latenciaAlvo, intervaloAmostra, this::profundidadeFila);
+		paraInserir = new ArrayBlockingQueue<>(buffer);
 		running.set(true);
-		executor.submit(this::loop);
+		inserindo.set(true);
+		publicando.set(true);
+
+		inseridoresExecutor = Executors.newFixedThreadPool(inseridores);
+		for (int i = 0; i < inseridores; i++) {
+			inseridoresExecutor.submit(this::loopInsercao);
+		}
+		if (eventHubEnabled) {
+			paraPublicar = new ArrayBlockingQueue<>(buffer);
+			publicadorExecutor = Executors.newSingleThreadExecutor();
+			publicadorExecutor.submit(this::loopPublicacao);
+		}
+		consumidoresExecutor = Executors.newFixedThreadPool(consumidores);
+		for (int i = 0; i < consumidores; i++) {
+			consumidoresExecutor.submit(this::loopConsumo);
+		}
+		Log.infof("SimulationQueueWorker iniciado: %d consumidor(es), %d inseridor(es), gravação %s, Event Hub %s",
+				consumidores, inseridores, insertMode, eventHubEnabled ? "ativo" : "desativado");
 	}
 
-	private void loop() {
+	private void loopConsumo() {
 		while (running.get()) {
 			try {
-				List<QueueStruct> itens = redisService.dequeueBatch(batchSize);
-				insertInPostgres(itens);
-				// sendEvent(itens);
+				int tamanho = batchSizer.proximo();
+				long inicio = System.nanoTime();
+				WorkerEtapaEvent evento = WorkerEtapaEvent.iniciar();
+				QueueBatch lote = redisService.lerLote(tamanho);
+				evento.concluir(WorkerEtapaEvent.DEQUEUE, lote.itens().size());
+				metricas.esperaLeitura.registrarDesde(inicio);
+				if (!lote.isEmpty()) {
+					metricas.tamanhoLote.registrar(lote.itens().size());
+					encaminhar(lote);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				Log.error("Falha lendo a fila", e);
+			}
+		}
+	}
+
+	/*
+	 * O lote já saiu do Redis; se o consumidor for interrompido (onStop) esperando
+	 * espaço no buffer, ele volta para a fila antes de a thread terminar.
+	 */
+	private void encaminhar(QueueBatch lote) throws InterruptedException {
+		try {
+			paraInserir.put(lote);
+		} catch (InterruptedException e) {
+			// A flag de interrupção já foi limpa, então o comando no Redis não é abortado
+			try {
+				redisService.devolver(lote);
+				Log.infof("%d simulação(ões) devolvida(s) à fila na finalização", lote.itens().size());
+			} catch (Exception falha) {
+				Log.errorf(falha, "Falha devolvendo %d simulação(ões) à fila: %s", lote.itens().size(),
+						lote.itens().stream().map(QueueStruct::simulacaoId).toList());
+			}
+			throw e;
+		}
+	}
+
+	// Continua até esvaziar o buffer depois do stop, para não perder o que já saiu do Redis
+	private void loopInsercao() {
+		while (inserindo.get() || !paraInserir.isEmpty()) {
+			try {
+				QueueBatch lote = paraInserir.poll(POLL_MS, TimeUnit.MILLISECONDS);
+				if (lote == null) {
+					continue;
+				}
+				long inicio = System.nanoTime();
+				WorkerEtapaEvent evento = WorkerEtapaEvent.iniciar();
+				gravar(lote.reentrega() ? naoGravados(lote.itens()) : lote.itens());
+				evento.concluir(WorkerEtapaEvent.INSERT, lote.itens().size());
+				long duracao = System.nanoTime() - inicio;
+				batchSizer.registrarGravacao(lote.itens().size(), duracao);
+				metricas.gravacao.registrar(TimeUnit.NANOSECONDS.toMicros(duracao));
+				metricas.registrarAtraso(lote.itens());
+				// Só confirma depois de gravar; se a gravação falhar, o lote é reentregue
+				redisService.ack(lote);
+				if (paraPublicar != null) {
+					paraPublicar.put(lote);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
 			} catch (Exception e) {
 				Log.error("Falha processando item da fila", e);
 			}
 		}
 	}
 
+	private void loopPublicacao() {
+		while (publicando.get() || !paraPublicar.isEmpty()) {
+			try {
+				QueueBatch lote = paraPublicar.poll(POLL_MS, TimeUnit.MILLISECONDS);
+				if (lote != null) {
+					long inicio = System.nanoTime();
+					WorkerEtapaEvent evento = WorkerEtapaEvent.iniciar();
+					sendEvent(lote.itens());
+					evento.concluir(WorkerEtapaEvent.PUBLISH, lote.itens().size());
+					metricas.publicacao.registrarDesde(inicio);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				Log.error("Falha publicando itens no Event Hub", e);
+			}
+		}
+	}
+
 	void sendEvent(List<QueueStruct> itens) {
 		if (itens.isEmpty())
 			return;
 		eventHubProducer.sendItens(itens);
 	}
 
+	/**
+	 * Itens reentregues podem já ter sido gravados (gravação concluída, mas o ack
+	 * falhou); esses são descartados para não violar a chave primária.
+	 */
+	@ActivateRequestContext
+	@Transactional
+	List<QueueStruct> naoGravados(List<QueueStruct> itens) {
+		if (itens.isEmpty())
+			return itens;
+
+		Set<Long> gravados = simulacaoRepository.idsExistentes(
+				itens.stream().map(QueueStruct::simulacaoId).toList(),
+				itens.stream().map(QueueStruct::dataReferencia).distinct().toList());
+		return itens.stream().filter(i -> !gravados.contains(i.simulacaoId())).toList();
+	}
+
+	/**
+	 * Grava o lote por COPY; se o COPY falhar (ou insert-mode=hibernate), usa o
+	 * caminho pelo Hibernate.
+	 */
+	void gravar(List<QueueStruct> itens) {
+		if (itens.isEmpty())
+			return;
+
+		if (insertCopy) {
+			try {
+				copyWriter.copiar(itens);
+				return;
+			} catch (Exception e) {
+				Log.warnf(e, "COPY de %d simulação(ões) falhou; gravando pelo Hibernate", itens.size());
+			}
+		}
+		insertInPostgres(itens);
+	}
+
 	@ActivateRequestContext
 	@Transactional
 	void insertInPostgres(List<QueueStruct> itens) {
 		if (itens == null || itens.isEmpty())
 			return;
 
-		List<Simulacao> batch = new ArrayList<>(batchSize);
+		List<Simulacao> batch = new ArrayList<>(itens.size());
 
 		for (QueueStruct item : itens) {
 			batch.add(new Simulacao(item));
@@ -78,13 +290,64 @@ public class SimulationQueueWorker {
 
 		simulacaoRepository.persist(batch);
 		simulacaoRepository.flush();
+		resumoDiaRepository.acumular(itens);
+	}
+
+	// Amostrada pelo AdaptiveBatchSizer no máximo uma vez por intervalo
+	private long profundidadeFila() {
+		long profundidade = redisService.size();
+		metricas.profundidadeFila.registrar(profundidade);
+		return profundidade;
+	}
+
+	/**
+	 * Distribuições do pipeline: profundidade da fila, tamanho dos lotes, espera
+	 * na leitura, gravação, publicação e atraso do enqueue até a gravação.
+	 */
+	public List<DistribuicaoSnapshot> pipelineSnapshot() {
+		return metricas.snapshot();
+	}
+
+	/**
+	 * Tamanho de lote em uso e como ele foi definido.
+	 */
+	public WorkerSnapshot snapshot() {
+		return batchSizer == null ? null : batchSizer.snapshot();
 	}
 
 	public void onStop(@Observes ShutdownEvent ev) {
 		running.set(false);
-		if (executor != null) {
-			executor.shutdownNow();
+		// O BLMPOP pode ficar bloqueado até o timeout; os consumidores são interrompidos
+		if (consumidoresExecutor != null) {
+			consumidoresExecutor.shutdownNow();
+			try {
+				// Um lote lido depois da interrupção ainda vai para o buffer (ou volta à fila)
+				if (!consumidoresExecutor.awaitTermination(ESPERA_FINALIZACAO_SEGUNDOS, TimeUnit.SECONDS)) {
+					Log.warn("Consumidores da fila não terminaram a tempo; lotes lidos depois disso podem se perder");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
 		}
+		inserindo.set(false);
+		aguardar(inseridoresExecutor);
+		publicando.set(false);
+		aguardar(publicadorExecutor);
 		Log.info("SimulationQueueWorker finalizado");
 	}
-}
\ No newline at end of file
+
+	private static void aguardar(ExecutorService executor) {
+		if (executor == null) {
+			return;
+		}
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(ESPERA_FINALIZACAO_SEGUNDOS, TimeUnit.SECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.api.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class OpenMetricsWriterTest {
+
+	@Test
+	void segundos() {
+		assertEquals("0.0015", texto(new OpenMetricsWriter(8).segundos(1500)));
+		assertEquals("1.0", texto(new OpenMetricsWriter(8).segundos(1_000_000)));
+		assertEquals("0.0", texto(new OpenMetricsWriter(8).segundos(0)));
+		assertEquals("0.000001", texto(new OpenMetricsWriter(8).segundos(1)));
+		assertEquals("0.0001", texto(new OpenMetricsWriter(8).segundos(100)));
+		assertEquals("2.5", texto(new OpenMetricsWriter(8).segundos(2_500_000)));
+		assertEquals("123.456789", texto(new OpenMetricsWriter(8).segundos(123_456_789)));
+	}
+
+	@Test
+	void numero() {
+		assertEquals("0", texto(new OpenMetricsWriter(8).numero(0)));
+		assertEquals("42", texto(new OpenMetricsWriter(8).numero(42)));
+		assertEquals("-42", texto(new OpenMetricsWriter(8).numero(-42)));
+		assertEquals("1000000", texto(new OpenMetricsWriter(8).numero(1_000_000)));
+		assertEquals(String.valueOf(Long.MAX_VALUE), texto(new OpenMetricsWriter(8).numero(Long.MAX_VALUE)));
+	}
+
+	@Test
+	void cresceEReaproveita() {
+		OpenMetricsWriter writer = new OpenMetricsWriter(4);
+		writer.ascii("http_server_requests_seconds_count").u8(' ').numero(12345).u8('\n');
+		assertEquals("http_server_requests_seconds_count 12345\n", texto(writer));
+		writer.reset();
+		writer.ascii("# EOF\n");
+		assertEquals("# EOF\n", texto(writer));
+	}
+
+	@Test
+	void rotuloComEscapes() {
+		assertEquals("a\\\\b\\\"c\\nd", new String(OpenMetricsWriter.rotulo("a\\b\"c\nd"), StandardCharsets.UTF_8));
+		assertEquals("/simulações", new String(OpenMetricsWriter.rotulo("/simulações"), StandardCharsets.UTF_8));
+	}
+
+	private static String texto(OpenMetricsWriter writer) {
+		return new String(writer.toByteArray(), StandardCharsets.US_ASCII);
+	}
+}
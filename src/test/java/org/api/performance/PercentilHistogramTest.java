@@ -0,0 +1,83 @@
+package org.api.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class PercentilHistogramTest {
+
+	private static final double ERRO_MAXIMO = 1.0 / PercentilHistogram.SUB_BUCKETS;
+
+	@Test
+	void valoresPequenosTemBucketProprio() {
+		for (int v = 0; v < PercentilHistogram.SUB_BUCKETS; v++) {
+			assertEquals(v, PercentilHistogram.indice(v));
+			assertEquals(v, PercentilHistogram.limiteInferior(v));
+			assertEquals(v, PercentilHistogram.limiteSuperior(v));
+		}
+		assertEquals(0, PercentilHistogram.indice(-5));
+	}
+
+	@Test
+	void limitesDosBuckets() {
+		long anterior = -1;
+		for (int i = 0; i < PercentilHistogram.BUCKETS; i++) {
+			long inferior = PercentilHistogram.limiteInferior(i);
+			long superior = PercentilHistogram.limiteSuperior(i);
+			// Buckets contíguos, sem buraco nem sobreposição
+			assertEquals(anterior + 1, inferior, "bucket " + i);
+			assertEquals(i, PercentilHistogram.indice(inferior));
+			assertEquals(i, PercentilHistogram.indice(superior));
+			if (i >= PercentilHistogram.SUB_BUCKETS) {
+				double largura = superior - inferior + 1;
+				assertTrue(largura / inferior <= ERRO_MAXIMO, "largura relativa do bucket " + i);
+			}
+			anterior = superior;
+		}
+		assertEquals(PercentilHistogram.VALOR_MAXIMO, anterior);
+		assertEquals(PercentilHistogram.BUCKETS - 1, PercentilHistogram.indice(Long.MAX_VALUE));
+	}
+
+	@Test
+	void percentisDentroDoErro() {
+		PercentilHistogram histograma = new PercentilHistogram(4);
+		SplittableRandom random = new SplittableRandom(7);
+		long[] valores = new long[200_000];
+		for (int i = 0; i < valores.length; i++) {
+			// Log-normal em µs: maioria perto de 1 ms, cauda até segundos
+			valores[i] = (long) Math.exp(7 + 1.5 * gaussiana(random));
+			histograma.registrar(valores[i]);
+		}
+		Arrays.sort(valores);
+
+		long[] contagens = histograma.contagens();
+		for (double p : new double[] { 50, 90, 95, 99, 99.9, 100 }) {
+			long exato = valores[(int) Math.max(0, Math.ceil(p / 100 * valores.length) - 1)];
+			long calculado = PercentilHistogram.calcularPercentil(contagens, p);
+			assertTrue(calculado >= exato, () -> "p" + p + " abaixo do real: " + calculado + " < " + exato);
+			assertTrue(calculado - exato <= Math.max(0, exato * ERRO_MAXIMO),
+					() -> "p" + p + " com erro acima de 1/64: " + calculado + " vs " + exato);
+		}
+	}
+
+	@Test
+	void histogramaVazio() {
+		assertEquals(0, new PercentilHistogram().p99());
+	}
+
+	@Test
+	void zerar() {
+		PercentilHistogram histograma = new PercentilHistogram(1);
+		histograma.registrar(1000);
+		histograma.zerar();
+		assertEquals(0, Arrays.stream(histograma.contagens()).sum());
+	}
+
+	private static double gaussiana(SplittableRandom random) {
+		return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+	}
+}
@@ -0,0 +1,119 @@
+package org.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.api.dto.QueueStruct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class QueueStructCodecTest {
+
+	private static final QueueStruct ITEM = new QueueStruct(1_760_000_000_000_123L, 1, "Produto 1",
+			new BigDecimal("0.017900000"), new BigDecimal("900.00"), 5, LocalDate.of(2026, 10, 17),
+			new BigDecimal("958.36"), 1_792_000_000_000L);
+
+	private static final QueueStruct ITEM_NULOS = new QueueStruct(43, null, null, null, null, null, null, null,
+			null);
+
+	/*
+	 * Item v1 gravado sem o nome do produto (versões anteriores omitiam o nome
+	 * quando o catálogo o conhecia): id 42, produto 1, taxa 7.5E-8, valor 18.00,
+	 * prazo 5, data 1970-03-06, total 18.00
+	 */
+	private static final byte[] V1_SEM_NOME = { 1, 0, 0, 0x2a, 2, 9, (byte) 0x96, 1, 2, (byte) 0x90, 0x1c, 10,
+			(byte) 0x80, 1, 2, (byte) 0x90, 0x1c };
+
+	private final Map<Integer, String> catalogo = new HashMap<>();
+	private QueueStructCodec codec;
+
+	@BeforeEach
+	void setUp() {
+		codec = new QueueStructCodec();
+		codec.mapper = new ObjectMapper().findAndRegisterModules();
+		codec.catalogService = new ProdutoCatalogService() {
+			@Override
+			public String nomeProduto(int codigo) {
+				return catalogo.get(codigo);
+			}
+		};
+		codec.formato = "binario";
+		codec.versaoGravada = 2;
+		catalogo.put(1, "Produto 1");
+	}
+
+	@Test
+	void json() {
+		codec.formato = "json";
+		byte[] bytes = codec.encode(ITEM);
+		assertEquals('{', bytes[0]);
+		assertEquals(ITEM, codec.decode(bytes));
+		assertEquals(ITEM_NULOS, codec.decode(codec.encode(ITEM_NULOS)));
+	}
+
+	@Test
+	void binarioVersao2() {
+		byte[] bytes = codec.encode(ITEM);
+		assertEquals(2, bytes[0]);
+		assertEquals(ITEM, codec.decode(bytes));
+		assertEquals(ITEM_NULOS, codec.decode(codec.encode(ITEM_NULOS)));
+	}
+
+	@Test
+	void binarioVersao1SemEnfileiradoEm() {
+		codec.versaoGravada = 1;
+		byte[] bytes = codec.encode(ITEM);
+		assertEquals(1, bytes[0]);
+		QueueStruct esperado = new QueueStruct(ITEM.simulacaoId(), ITEM.codigoProduto(), ITEM.nomeProduto(),
+				ITEM.taxaJurosMensal(), ITEM.valorDesejado(), ITEM.prazo(), ITEM.dataReferencia(),
+				ITEM.valorTotalParcelas(), null);
+		assertEquals(esperado, codec.decode(bytes));
+	}
+
+	@Test
+	void nomeGravadoMesmoComProdutoRenomeado() {
+		byte[] bytes = codec.encode(ITEM);
+		catalogo.put(1, "Produto 1 (novo nome)");
+		assertEquals("Produto 1", ((QueueStruct) codec.decode(bytes)).nomeProduto());
+		catalogo.clear();
+		assertEquals(ITEM, codec.decode(bytes));
+	}
+
+	@Test
+	void itemAntigoSemNomeUsaCatalogo() {
+		QueueStruct item = (QueueStruct) codec.decode(V1_SEM_NOME);
+		assertEquals(42L, item.simulacaoId());
+		assertEquals("Produto 1", item.nomeProduto());
+		assertEquals(new BigDecimal("18.00"), item.valorDesejado());
+		assertEquals(null, item.enfileiradoEm());
+	}
+
+	@Test
+	void itemAntigoSemNomeComProdutoDesconhecido() {
+		catalogo.clear();
+		assertThrows(IllegalArgumentException.class, () -> codec.decode(V1_SEM_NOME));
+	}
+
+	@Test
+	void versaoDesconhecida() {
+		byte[] bytes = codec.encode(ITEM);
+		bytes[0] = 9;
+		assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+	}
+
+	@Test
+	void valorForaDoFormatoBinarioVaiEmJson() {
+		QueueStruct grande = new QueueStruct(44, 1, "Produto 1", new BigDecimal("1.5"),
+				new BigDecimal("123456789012345678901234567890"), 1, LocalDate.of(2026, 1, 1), BigDecimal.ONE, 5L);
+		byte[] bytes = codec.encode(grande);
+		assertEquals('{', bytes[0]);
+		assertEquals(grande, codec.decode(bytes));
+	}
+}
@@ -0,0 +1,39 @@
+package org.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class SimulacaoCursorTest {
+
+	@Test
+	void idaEVolta() {
+		for (long id : new long[] { 0, 1, 1_760_000_000_000_123L, Long.MAX_VALUE, -1 }) {
+			assertEquals(id, SimulacaoCursor.decodificar(SimulacaoCursor.codificar(id)));
+		}
+	}
+
+	@Test
+	void cursorVazioEhPrimeiraPagina() {
+		assertEquals(Long.MIN_VALUE, SimulacaoCursor.decodificar(null));
+		assertEquals(Long.MIN_VALUE, SimulacaoCursor.decodificar(""));
+		assertEquals(Long.MIN_VALUE, SimulacaoCursor.decodificar("  "));
+	}
+
+	@Test
+	void cursorInvalido() {
+		// Fora do alfabeto Base64 URL-safe
+		assertThrows(IllegalArgumentException.class, () -> SimulacaoCursor.decodificar("não é cursor"));
+		// Tamanho errado
+		assertThrows(IllegalArgumentException.class, () -> SimulacaoCursor.decodificar(
+				Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[] { 1, 2, 3 })));
+		// Versão desconhecida
+		byte[] bytes = Base64.getUrlDecoder().decode(SimulacaoCursor.codificar(42));
+		bytes[0] = 9;
+		String outraVersao = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		assertThrows(IllegalArgumentException.class, () -> SimulacaoCursor.decodificar(outraVersao));
+	}
+}
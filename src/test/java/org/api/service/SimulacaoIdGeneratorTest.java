@@ -0,0 +1,97 @@
+package org.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class SimulacaoIdGeneratorTest {
+
+	private static final long NO = 613;
+
+	@Test
+	void idsCrescentes() {
+		SimulacaoIdGenerator gerador = gerador(NO);
+		long anterior = gerador.next();
+		// Mais de 4096 por ms: passa pelo esgotamento da sequência
+		for (int i = 0; i < 100_000; i++) {
+			long id = gerador.next();
+			assertTrue(id > anterior, "ID não crescente");
+			anterior = id;
+		}
+	}
+
+	@Test
+	void layoutDoId() {
+		long antes = System.currentTimeMillis() - SimulacaoIdGenerator.EPOCH;
+		long id = gerador(NO).next();
+		long depois = System.currentTimeMillis() - SimulacaoIdGenerator.EPOCH;
+
+		assertTrue(id > 0);
+		assertEquals(NO, (id >>> SimulacaoIdGenerator.BITS_SEQUENCIA) & SimulacaoIdGenerator.MAX_NO);
+		long ms = id >>> (SimulacaoIdGenerator.BITS_NO + SimulacaoIdGenerator.BITS_SEQUENCIA);
+		assertTrue(ms >= antes && ms <= depois, () -> "ms " + ms + " fora de [" + antes + ", " + depois + "]");
+
+		assertEquals((5L << 22) | (7L << 12) | 9, SimulacaoIdGenerator.compor(5, 7, 9));
+	}
+
+	@Test
+	void unicosComConcorrencia() throws Exception {
+		SimulacaoIdGenerator gerador = gerador(NO);
+		int threads = 4;
+		int porThread = 50_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch largada = new CountDownLatch(1);
+		try {
+			Future<?>[] tarefas = new Future<?>[threads];
+			long[][] ids = new long[threads][porThread];
+			for (int t = 0; t < threads; t++) {
+				long[] meus = ids[t];
+				tarefas[t] = executor.submit(() -> {
+					largada.await();
+					for (int i = 0; i < porThread; i++) {
+						meus[i] = gerador.next();
+					}
+					return null;
+				});
+			}
+			largada.countDown();
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+
+			long[] todos = new long[threads * porThread];
+			for (int t = 0; t < threads; t++) {
+				// Cada thread vê IDs crescentes
+				for (int i = 1; i < porThread; i++) {
+					assertTrue(ids[t][i] > ids[t][i - 1]);
+				}
+				System.arraycopy(ids[t], 0, todos, t * porThread, porThread);
+			}
+			assertEquals(todos.length, Arrays.stream(todos).distinct().count());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void noForaDaFaixa() {
+		SimulacaoIdGenerator gerador = new SimulacaoIdGenerator();
+		gerador.noConfigurado = SimulacaoIdGenerator.MAX_NO + 1;
+		assertThrows(IllegalArgumentException.class, gerador::init);
+	}
+
+	private static SimulacaoIdGenerator gerador(long no) {
+		SimulacaoIdGenerator gerador = new SimulacaoIdGenerator();
+		gerador.noConfigurado = no;
+		gerador.init();
+		return gerador;
+	}
+}
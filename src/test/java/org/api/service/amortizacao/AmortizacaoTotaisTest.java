@@ -0,0 +1,114 @@
+package org.api.service.amortizacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.api.dto.ParcelaDTO;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Confere a soma em forma fechada do SAC contra a soma das parcelas geradas
+ * pela referência em BigDecimal.
+ */
+class AmortizacaoTotaisTest {
+
+	private static final int PRAZO_MAXIMO = 600;
+
+	// Taxas dos produtos do products.sql
+	private static final List<BigDecimal> TAXAS = List.of(
+			new BigDecimal("0.017900000"),
+			new BigDecimal("0.017500000"),
+			new BigDecimal("0.018200000"),
+			new BigDecimal("0.015100000"));
+
+	private static final List<BigDecimal> VALORES = List.of(
+			new BigDecimal("200.00"),
+			new BigDecimal("10000.37"),
+			new BigDecimal("999999.99"),
+			new BigDecimal("1000000.01"));
+
+	private final BigDecimalAmortizacaoEngine referencia = new BigDecimalAmortizacaoEngine();
+
+	@Test
+	void totalSACIgualASomaDasParcelas() {
+		for (BigDecimal taxa : TAXAS) {
+			for (BigDecimal valor : VALORES) {
+				for (int prazo = 1; prazo <= PRAZO_MAXIMO; prazo++) {
+					conferirSAC(valor, taxa, prazo);
+				}
+			}
+		}
+	}
+
+	@Test
+	void totalSACComTaxaZero() {
+		BigDecimal taxa = new BigDecimal("0.000000000");
+		for (int prazo = 1; prazo <= PRAZO_MAXIMO; prazo++) {
+			conferirSAC(new BigDecimal("12345.67"), taxa, prazo);
+		}
+	}
+
+	@Test
+	void totalSACComUmMes() {
+		for (BigDecimal taxa : TAXAS) {
+			for (BigDecimal valor : VALORES) {
+				conferirSAC(valor, taxa, 1);
+			}
+		}
+	}
+
+	@Test
+	void totalSACComPrincipalGrande() {
+		// Perto e além do limite do cálculo em long, onde a soma cai para as parcelas
+		for (String valor : List.of("50000000.00", "999999999.99", "92233720368.54", "123456789012345.67")) {
+			for (int prazo : new int[] { 1, 2, 96, 360, PRAZO_MAXIMO }) {
+				conferirSAC(new BigDecimal(valor), TAXAS.get(3), prazo);
+			}
+		}
+	}
+
+	@Test
+	void totalPRICEIgualASomaDasParcelas() {
+		for (BigDecimal taxa : TAXAS) {
+			for (BigDecimal valor : VALORES) {
+				for (int prazo = 1; prazo <= PRAZO_MAXIMO; prazo += 7) {
+					BigDecimal pmt = AmortizacaoEngine.pmt(valor, taxa, prazo);
+					assertEquals(soma(referencia.calcularPRICE(valor, taxa, prazo, pmt)),
+							AmortizacaoTotais.totalPRICE(pmt, prazo),
+							"PRICE: valor=" + valor + " taxa=" + taxa + " prazo=" + prazo);
+				}
+			}
+		}
+	}
+
+	@Test
+	void floorSumIgualASomaDireta() {
+		long[][] casos = { { 1, 1, 0, 0 }, { 10, 7, 3, 5 }, { 600, 1_000_000_007L, 123_456_789L, 987_654_321L },
+				{ 1000, 3, 1_000_000L, 2 }, { 37, 10_000_000_000L, 9_999_999_999L, 5_000_000_000L } };
+		for (long[] c : casos) {
+			long esperado = 0;
+			for (long k = 0; k < c[0]; k++) {
+				esperado += (c[2] * k + c[3]) / c[1];
+			}
+			assertEquals(esperado, AmortizacaoTotais.floorSum(c[0], c[1], c[2], c[3]),
+					() -> "floorSum(" + c[0] + ", " + c[1] + ", " + c[2] + ", " + c[3] + ")");
+		}
+	}
+
+	private void conferirSAC(BigDecimal valor, BigDecimal taxa, int prazo) {
+		assertEquals(soma(referencia.calcularSAC(valor, taxa, prazo)),
+				AmortizacaoTotais.totalSAC(referencia, valor, taxa, prazo),
+				() -> "SAC: valor=" + valor + " taxa=" + taxa + " prazo=" + prazo);
+	}
+
+	// Soma das prestações em centavos
+	private static long soma(List<ParcelaDTO> parcelas) {
+		long total = 0;
+		for (ParcelaDTO parcela : parcelas) {
+			total += parcela.valorPrestacao().movePointRight(2).longValueExact();
+		}
+		return total;
+	}
+}
@@ -0,0 +1,82 @@
+package org.api.service.amortizacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compara o motor de ponto fixo com a referência em BigDecimal, parcela a
+ * parcela, para as taxas dos produtos do products.sql e todos os prazos de 1 a
+ * 600 meses.
+ */
+class FixedPointAmortizacaoEngineTest {
+
+	private static final int PRAZO_MAXIMO = 600;
+	private static final int CASOS_ALEATORIOS = 2_000;
+
+	// Taxa e faixa de valores de cada produto; o produto 4 não tem valor máximo
+	private static final List<Faixa> PRODUTOS = List.of(
+			new Faixa(new BigDecimal("0.017900000"), "200.00", "10000.00"),
+			new Faixa(new BigDecimal("0.017500000"), "10001.00", "100000.00"),
+			new Faixa(new BigDecimal("0.018200000"), "100000.01", "1000000.00"),
+			new Faixa(new BigDecimal("0.015100000"), "1000000.01", "999999999.99"));
+
+	private final AmortizacaoEngine referencia = new BigDecimalAmortizacaoEngine();
+	private final AmortizacaoEngine pontoFixo = new FixedPointAmortizacaoEngine();
+
+	@Test
+	void mesmasParcelasNosExtremosDeCadaProduto() {
+		for (Faixa produto : PRODUTOS) {
+			PriceFatorTable fatores = new PriceFatorTable(produto.taxa(), 1, PRAZO_MAXIMO);
+			for (BigDecimal valor : List.of(produto.minimo(), produto.meio(), produto.maximo())) {
+				for (int prazo = 1; prazo <= PRAZO_MAXIMO; prazo++) {
+					comparar(valor, produto.taxa(), prazo, fatores);
+				}
+			}
+		}
+	}
+
+	@Test
+	void mesmasParcelasEmValoresAleatorios() {
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < CASOS_ALEATORIOS; i++) {
+			Faixa produto = PRODUTOS.get(random.nextInt(PRODUTOS.size()));
+			long minimo = produto.minimo().unscaledValue().longValueExact();
+			long maximo = produto.maximo().unscaledValue().longValueExact();
+			BigDecimal valor = BigDecimal.valueOf(random.nextLong(minimo, maximo + 1), 2);
+			int prazo = random.nextInt(1, PRAZO_MAXIMO + 1);
+			comparar(valor, produto.taxa(), prazo, new PriceFatorTable(produto.taxa(), prazo, prazo));
+		}
+	}
+
+	private void comparar(BigDecimal valor, BigDecimal taxa, int prazo, PriceFatorTable fatores) {
+		assertEquals(referencia.calcularSAC(valor, taxa, prazo),
+				pontoFixo.calcularSAC(valor, taxa, prazo),
+				() -> "SAC divergente: valor=" + valor + " taxa=" + taxa + " prazo=" + prazo);
+
+		BigDecimal pmt = fatores.pmt(valor, prazo);
+		assertEquals(referencia.calcularPRICE(valor, taxa, prazo, pmt),
+				pontoFixo.calcularPRICE(valor, taxa, prazo, pmt),
+				() -> "PRICE divergente: valor=" + valor + " taxa=" + taxa + " prazo=" + prazo);
+		assertEquals(AmortizacaoEngine.pmt(valor, taxa, prazo), pmt,
+				() -> "PMT da tabela de fatores divergente: valor=" + valor + " prazo=" + prazo);
+	}
+
+	private record Faixa(BigDecimal taxa, BigDecimal minimo, BigDecimal maximo) {
+
+		Faixa(BigDecimal taxa, String minimo, String maximo) {
+			this(taxa, new BigDecimal(minimo), new BigDecimal(maximo));
+		}
+
+		// Ponto intermediário com centavos "quebrados"
+		BigDecimal meio() {
+			return minimo.add(maximo).divide(BigDecimal.valueOf(2)).setScale(0, RoundingMode.DOWN)
+					.add(new BigDecimal("0.37"));
+		}
+	}
+}